@@ -74,7 +74,7 @@ CREATE TABLE flights (
 );
 
 CREATE INDEX idx_flights_source_destination ON flights(source_airport_id, destination_airport_id);
-CREATE INDEX idx_flights_departure_time ON flights(departure_time);
+CREATE INDEX idx_flights_departure_time_id ON flights(departure_time, id);
 CREATE INDEX idx_flights_arrival_time ON flights(arrival_time);
 
 CREATE TABLE flight_airlines (
@@ -128,7 +128,7 @@ CREATE TABLE user_sessions (
 );
 
 CREATE INDEX idx_user_sessions_user_id ON user_sessions(user_id);
-CREATE INDEX idx_user_sessions_token_hash ON user_sessions(token_hash);
+CREATE UNIQUE INDEX ux_user_sessions_token_hash ON user_sessions(token_hash);
 CREATE INDEX idx_user_sessions_expires_at ON user_sessions(expires_at);
 
 -- Load initial data (from data.sql)
@@ -0,0 +1,8 @@
+package edu.mit.sidpac.flightsearch.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling   // background housekeeping such as SessionSweeper
+public class SchedulingConfig {}
@@ -1,11 +1,18 @@
 package edu.mit.sidpac.flightsearch.config;
 
+import edu.mit.sidpac.flightsearch.security.AdmissionControlFilter;
+import edu.mit.sidpac.flightsearch.security.BoundedPasswordEncoder;
+import edu.mit.sidpac.flightsearch.security.PasswordHashingExecutor;
 import edu.mit.sidpac.flightsearch.security.SessionAuthenticationFilter;
 import edu.mit.sidpac.flightsearch.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,6 +21,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,9 +41,23 @@ public class SecurityConfig {
     @Autowired
     private SessionAuthenticationFilter sessionAuthenticationFilter;
     
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+    
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    // Existing hashes keep verifying after a change; the cost is stored in each hash
+    @Value("${flight-search.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength = 10;
+    
+    // Metrics name routes, callers and internal timings; anonymous scraping is an explicit opt-in
+    @Value("${flight-search.metrics.anonymous-scrape:false}")
+    private boolean anonymousScrape = false;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), passwordHashingExecutor);
     }
     
     @Bean
@@ -52,9 +74,13 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/register").hasRole("ADMIN")
                 .requestMatchers("/api/search/**").permitAll()
                 .requestMatchers("GET", "/api/flights", "/api/flights/*", "/api/flights/airline/**", "/api/flights/search", "/api/flights/planning").permitAll()
-                .requestMatchers("POST", "/api/flights").hasRole("ADMIN")
+                .requestMatchers("POST", "/api/flights", "/api/flights/bulk").hasRole("ADMIN")
                 .requestMatchers("PUT", "/api/flights/*").hasRole("ADMIN")
                 .requestMatchers("DELETE", "/api/flights/*").hasRole("ADMIN")
+                .requestMatchers("PUT", "/api/fares/airline/*").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("GET", "/actuator/prometheus").access(scrapeAccess())
+                .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .userDetailsService(userDetailsService)
@@ -65,11 +91,20 @@ public class SecurityConfig {
                 .sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.IF_REQUIRED)
             )
             // Temporarily disabled to test public endpoints
-            .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(sessionAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Runs after session auth so admin traffic can be recognised and given its own quota
+            .addFilterAfter(admissionControlFilter, SessionAuthenticationFilter.class);
         
         return http.build();
     }
     
+    private AuthorizationManager<RequestAuthorizationContext> scrapeAccess() {
+        if (anonymousScrape) {
+            return (authentication, context) -> new AuthorizationDecision(true);
+        }
+        return AuthorityAuthorizationManager.hasRole("ADMIN");
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -77,7 +112,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("X-Session-ID"));
+        configuration.setExposedHeaders(Arrays.asList("X-Session-ID", "X-Next-Cursor", "Link", "Retry-After"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,47 @@
+package edu.mit.sidpac.flightsearch.controller;
+
+import edu.mit.sidpac.flightsearch.dto.CacheRegionStats;
+import edu.mit.sidpac.flightsearch.dto.SlowSearch;
+import edu.mit.sidpac.flightsearch.service.ReferenceCacheService;
+import edu.mit.sidpac.flightsearch.service.SlowSearchRecorder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+    
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+    
+    @Autowired
+    private SlowSearchRecorder slowSearchRecorder;
+    
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(referenceCacheService.getStats());
+    }
+    
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictCache() {
+        referenceCacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/slow-searches")
+    public ResponseEntity<List<SlowSearch>> getSlowSearches() {
+        return ResponseEntity.ok(slowSearchRecorder.getRecent());
+    }
+    
+    @DeleteMapping("/slow-searches")
+    public ResponseEntity<Void> clearSlowSearches() {
+        slowSearchRecorder.clear();
+        return ResponseEntity.noContent().build();
+    }
+}
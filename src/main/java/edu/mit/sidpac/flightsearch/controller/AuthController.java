@@ -3,9 +3,12 @@ package edu.mit.sidpac.flightsearch.controller;
 import edu.mit.sidpac.flightsearch.dto.AuthRequest;
 import edu.mit.sidpac.flightsearch.dto.AuthResponse;
 import edu.mit.sidpac.flightsearch.dto.RegisterRequest;
+import edu.mit.sidpac.flightsearch.exception.PasswordHashingBusyException;
 import edu.mit.sidpac.flightsearch.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,6 +24,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return busy();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -32,6 +37,8 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request, sessionId);
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return busy();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("session") || e.getMessage().contains("authentication")) {
                 return ResponseEntity.status(401).build();
@@ -49,4 +56,10 @@ public class AuthController {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    private <T> ResponseEntity<T> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 }
@@ -0,0 +1,49 @@
+package edu.mit.sidpac.flightsearch.controller;
+
+import edu.mit.sidpac.flightsearch.dto.IngestReport;
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.exception.InsufficientPermissionsException;
+import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.service.FareImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/fares")
+public class FareController {
+    
+    @Autowired
+    private FareImportService fareImportService;
+    
+    @Autowired
+    private AuthService authService;
+    
+    @PutMapping(value = "/airline/{airlineCode}", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IngestReport> replaceFareCatalog(@PathVariable String airlineCode,
+                                                           HttpServletRequest request) throws IOException {
+        FareImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? FareImportService.Format.CSV
+                : FareImportService.Format.NDJSON;
+        
+        try {
+            User currentUser = authService.getCurrentUser();
+            IngestReport report = fareImportService.replaceCatalog(currentUser, airlineCode, format, request.getInputStream());
+            // A tariff is all-or-nothing: any rejected row leaves the current catalog in place
+            return report.getRejected() > 0
+                    ? ResponseEntity.unprocessableEntity().body(report)
+                    : ResponseEntity.ok(report);
+        } catch (InsufficientPermissionsException e) {
+            return ResponseEntity.status(403).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
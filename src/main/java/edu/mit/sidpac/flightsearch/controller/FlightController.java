@@ -1,21 +1,33 @@
 package edu.mit.sidpac.flightsearch.controller;
 
+import edu.mit.sidpac.flightsearch.dto.FlightPage;
+import edu.mit.sidpac.flightsearch.dto.IngestReport;
 import edu.mit.sidpac.flightsearch.entity.Flight;
 import edu.mit.sidpac.flightsearch.entity.User;
 import edu.mit.sidpac.flightsearch.exception.InsufficientPermissionsException;
 import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.service.FlightExportService;
+import edu.mit.sidpac.flightsearch.service.FlightIngestService;
 import edu.mit.sidpac.flightsearch.service.FlightService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/flights")
@@ -27,11 +39,48 @@ public class FlightController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private FlightExportService flightExportService;
+    
+    @Autowired
+    private FlightIngestService flightIngestService;
+    
     @GetMapping
-    public ResponseEntity<?> getAllFlights(Pageable pageable) {
-        // Always return a simple list, not a Page object
-        List<Flight> flights = flightService.getAllFlights();
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<?> getAllFlights(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(defaultValue = "departureTime,asc") String sort) {
+        // Body stays a simple list; the next page is advertised through X-Next-Cursor and Link headers
+        FlightPage page;
+        try {
+            boolean descending = isDescending(sort);
+            if ((cursor == null || cursor.isBlank()) && size == null) {
+                // Clients that do not page get the whole schedule, as before pagination existed
+                return ResponseEntity.ok(flightService.getAllFlights(descending));
+            }
+            page = flightService.getFlightsPage(cursor, size, descending);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .build()
+                    .toUriString();
+            response.header("X-Next-Cursor", page.getNextCursor())
+                    .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+        }
+        return response.body(page.getFlights());
+    }
+    
+    private boolean isDescending(String sort) {
+        // Accepts "asc", "desc" or Spring-style "departureTime,desc"
+        String[] parts = sort.split(",");
+        if (parts.length > 2 || (parts.length == 2 && !"departureTime".equals(parts[0].trim()))) {
+            throw new IllegalArgumentException("Flights can only be sorted by departureTime");
+        }
+        return Sort.Direction.fromString(parts[parts.length - 1].trim()).isDescending();
     }
     
     @GetMapping("/{id}")
@@ -68,6 +117,20 @@ public class FlightController {
         }
     }
     
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IngestReport> bulkCreateFlights(HttpServletRequest request) throws IOException {
+        // The body is consumed line by line; rows that fail validation are listed in the report
+        FlightIngestService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? FlightIngestService.Format.CSV
+                : FlightIngestService.Format.NDJSON;
+        
+        User currentUser = authService.getCurrentUser();
+        IngestReport report = flightIngestService.ingest(currentUser, format, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Flight> updateFlight(@PathVariable String id, @RequestBody UpdateFlightRequest request) {
@@ -136,6 +199,45 @@ public class FlightController {
         return ResponseEntity.ok(flights);
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFlights(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String airline,
+            @RequestParam(required = false) LocalDateTime from,
+            @RequestParam(required = false) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        FlightExportService.Format exportFormat;
+        try {
+            exportFormat = FlightExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = out -> {
+            // Rows are written as they come off the cursor, so the response is never buffered in full
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            flightExportService.export(exportFormat, airline, from, to, target);
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"flights." + exportFormat.name().toLowerCase() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
     // DTOs for request bodies
     public static class CreateFlightRequest {
         private String flightNumber;
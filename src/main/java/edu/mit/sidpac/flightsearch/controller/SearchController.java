@@ -2,7 +2,7 @@ package edu.mit.sidpac.flightsearch.controller;
 
 import edu.mit.sidpac.flightsearch.dto.SearchRequest;
 import edu.mit.sidpac.flightsearch.dto.SearchResponse;
-import edu.mit.sidpac.flightsearch.service.FlightSearchService;
+import edu.mit.sidpac.flightsearch.service.SearchCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,24 +12,28 @@ import org.springframework.web.bind.annotation.*;
 public class SearchController {
     
     @Autowired
-    private FlightSearchService flightSearchService;
+    private SearchCoalescer searchCoalescer;
     
     @GetMapping("/planning")
     public ResponseEntity<SearchResponse> searchFlights(
             @RequestParam String sourceAirport,
             @RequestParam String destinationAirport,
-            @RequestParam(required = false) String departureTime) {
+            @RequestParam(required = false) String departureTime,
+            @RequestParam(required = false) Long timeoutMs,
+            @RequestParam(defaultValue = "false") boolean explain) {
         
         try {
             SearchRequest request = new SearchRequest();
             request.setSourceAirport(sourceAirport);
             request.setDestinationAirport(destinationAirport);
+            request.setTimeoutMs(timeoutMs);
+            request.setExplain(explain);
             
             if (departureTime != null) {
                 request.setDepartureTime(java.time.LocalDateTime.parse(departureTime));
             }
             
-            SearchResponse response = flightSearchService.searchFlights(request);
+            SearchResponse response = searchCoalescer.searchFlights(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,4 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+public record AirlineSummary(String code, String name, String country) {
+}
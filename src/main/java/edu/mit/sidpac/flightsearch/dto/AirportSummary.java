@@ -0,0 +1,4 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+public record AirportSummary(String code, String name, String city, String country) {
+}
@@ -0,0 +1,19 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+/**
+ * Hit/miss counters for one second-level cache region since startup or the last statistics reset.
+ */
+public record CacheRegionStats(long hits, long misses, long puts, double hitRatio) {
+    
+    public static CacheRegionStats of(long hits, long misses, long puts) {
+        long requests = hits + misses;
+        return new CacheRegionStats(hits, misses, puts, requests == 0 ? 0.0 : (double) hits / requests);
+    }
+    
+    /**
+     * Counts accumulated since the earlier snapshot of the same region.
+     */
+    public CacheRegionStats since(CacheRegionStats earlier) {
+        return of(hits - earlier.hits, misses - earlier.misses, puts - earlier.puts);
+    }
+}
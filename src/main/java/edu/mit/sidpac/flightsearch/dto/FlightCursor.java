@@ -0,0 +1,58 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import edu.mit.sidpac.flightsearch.entity.Flight;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for flight listings.
+ * Encodes the (departure_time, id) of the last flight returned so the next page
+ * starts right after it without an offset scan.
+ */
+public class FlightCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private final LocalDateTime departureTime;
+    private final String id;
+    
+    public FlightCursor(LocalDateTime departureTime, String id) {
+        this.departureTime = departureTime;
+        this.id = id;
+    }
+    
+    public static FlightCursor of(Flight flight) {
+        return new FlightCursor(flight.getDepartureTime(), flight.getId());
+    }
+    
+    public static FlightCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new FlightCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                                    decoded.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+    
+    public String encode() {
+        String raw = departureTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Getters
+    public LocalDateTime getDepartureTime() {
+        return departureTime;
+    }
+    
+    public String getId() {
+        return id;
+    }
+}
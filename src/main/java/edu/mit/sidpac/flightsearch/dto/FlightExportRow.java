@@ -0,0 +1,17 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One (flight, airline) row of the schedule export query.
+ * Rows arrive ordered by flight, so consecutive rows for the same flight are merged into one record.
+ */
+public record FlightExportRow(
+        String id,
+        String flightNumber,
+        String sourceAirportCode,
+        String destinationAirportCode,
+        LocalDateTime departureTime,
+        LocalDateTime arrivalTime,
+        String airlineCode) {
+}
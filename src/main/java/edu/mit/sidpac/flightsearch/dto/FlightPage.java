@@ -0,0 +1,29 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import edu.mit.sidpac.flightsearch.entity.Flight;
+
+import java.util.List;
+
+public class FlightPage {
+    
+    private final List<Flight> flights;
+    private final String nextCursor; // null on the last page
+    
+    public FlightPage(List<Flight> flights, String nextCursor) {
+        this.flights = flights;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters
+    public List<Flight> getFlights() {
+        return flights;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
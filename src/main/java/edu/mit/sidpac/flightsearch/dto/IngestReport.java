@@ -0,0 +1,73 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk load: row counts plus the rows that were rejected and why.
+ */
+public class IngestReport {
+    
+    private int received;
+    private int inserted;
+    private int rejected;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+    
+    public void recordReceived() {
+        received++;
+    }
+    
+    public void recordInserted(int count) {
+        inserted += count;
+    }
+    
+    public void recordRejected(int line, String message, int maxReportedErrors) {
+        rejected++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+    
+    // Getters
+    public int getReceived() {
+        return received;
+    }
+    
+    public int getInserted() {
+        return inserted;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    public static class RowError {
+        
+        private final int line;
+        private final String message;
+        
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+        
+        public int getLine() {
+            return line;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
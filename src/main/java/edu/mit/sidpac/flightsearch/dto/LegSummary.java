@@ -0,0 +1,20 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Flat projection of a flight leg for search responses.
+ * Airports and airlines are referenced by code and resolved through the
+ * dictionaries in SearchResponse.
+ */
+public record LegSummary(
+        String id,
+        String flightNumber,
+        String sourceAirportCode,
+        String destinationAirportCode,
+        LocalDateTime departureTime,
+        LocalDateTime arrivalTime,
+        long durationInMinutes,
+        List<String> airlineCodes) {
+}
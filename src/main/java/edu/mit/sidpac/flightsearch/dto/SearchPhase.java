@@ -0,0 +1,8 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+public enum SearchPhase {
+    LOAD_SCHEDULE,   // Loading candidate flights from the repository
+    DIRECT,          // Enumerating direct trips
+    CONNECTING,      // Enumerating two-leg connecting trips
+    COMPLETE         // Search finished within its time budget
+}
@@ -0,0 +1,120 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Where a planning search spent its work, returned with the results when explain=true.
+ * Reference cache figures are deltas of the application-wide counters, so concurrent requests add to them.
+ */
+public class SearchProfile {
+    
+    public static final String DEPARTURE_BEFORE_WINDOW = "departure_before_window";
+    public static final String CONNECTION_BEFORE_ARRIVAL = "connection_before_arrival";
+    public static final String NO_COMMON_AIRLINE = "no_common_airline";
+    public static final String NO_APPLICABLE_FARE = "no_applicable_fare";
+    public static final String DEADLINE = "deadline";
+    
+    private Map<String, Double> phaseMillis = new LinkedHashMap<>();
+    private double totalMillis;
+    private int flightsLoaded;
+    private int directCandidates;
+    private int firstLegCandidates;
+    private int secondLegCandidates;
+    private final Map<String, AirlineFares> fares = new TreeMap<>();
+    private final Map<String, Long> pruned = new TreeMap<>();
+    private Map<String, CacheRegionStats> referenceCache;
+    
+    public void setPhaseMillis(Map<String, Double> phaseMillis) {
+        this.phaseMillis = phaseMillis;
+    }
+    
+    public void recordTotal(long nanos) {
+        totalMillis = nanos / 1_000_000.0;
+    }
+    
+    public void recordFlightsLoaded(int count) {
+        flightsLoaded = count;
+    }
+    
+    public void recordCandidates(int direct, int firstLeg, int secondLeg) {
+        directCandidates = direct;
+        firstLegCandidates = firstLeg;
+        secondLegCandidates = secondLeg;
+    }
+    
+    public void recordFareLookup(String airlineCode, int faresEvaluated, boolean priced) {
+        fares.computeIfAbsent(airlineCode, code -> new AirlineFares()).record(faresEvaluated);
+        if (!priced) {
+            recordPruned(NO_APPLICABLE_FARE);
+        }
+    }
+    
+    public void recordPruned(String rule) {
+        pruned.merge(rule, 1L, Long::sum);
+    }
+    
+    public void setReferenceCache(Map<String, CacheRegionStats> referenceCache) {
+        this.referenceCache = referenceCache;
+    }
+    
+    // Getters
+    public Map<String, Double> getPhaseMillis() {
+        return phaseMillis;
+    }
+    
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+    
+    public int getFlightsLoaded() {
+        return flightsLoaded;
+    }
+    
+    public int getDirectCandidates() {
+        return directCandidates;
+    }
+    
+    public int getFirstLegCandidates() {
+        return firstLegCandidates;
+    }
+    
+    public int getSecondLegCandidates() {
+        return secondLegCandidates;
+    }
+    
+    public Map<String, AirlineFares> getFares() {
+        return fares;
+    }
+    
+    public Map<String, Long> getPruned() {
+        return pruned;
+    }
+    
+    public Map<String, CacheRegionStats> getReferenceCache() {
+        return referenceCache;
+    }
+    
+    /**
+     * Fare catalog loads for one airline; each candidate trip loads its airline's catalog once.
+     */
+    public static class AirlineFares {
+        
+        private int lookups;
+        private long faresEvaluated;
+        
+        void record(int fares) {
+            lookups++;
+            faresEvaluated += fares;
+        }
+        
+        public int getLookups() {
+            return lookups;
+        }
+        
+        public long getFaresEvaluated() {
+            return faresEvaluated;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package edu.mit.sidpac.flightsearch.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 
@@ -17,6 +18,11 @@ public class SearchRequest {
     
     private LocalDateTime departureTime;
     
+    private Long timeoutMs; // optional per-request search budget
+    
+    @JsonIgnore // kept out of the echoed criteria so responses without explain are unchanged
+    private boolean explain;
+    
     // Constructors
     public SearchRequest() {}
     
@@ -50,4 +56,20 @@ public class SearchRequest {
     public void setDepartureTime(LocalDateTime departureTime) {
         this.departureTime = departureTime;
     }
+    
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+    
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+    
+    public boolean isExplain() {
+        return explain;
+    }
+    
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
 }
@@ -1,12 +1,23 @@
 package edu.mit.sidpac.flightsearch.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import edu.mit.sidpac.flightsearch.mapper.ItineraryMapper;
+
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class SearchResponse {
     
     private List<Trip> trips;
     private SearchRequest searchCriteria;
     private int totalResults;
+    private boolean partial;
+    private SearchPhase phase = SearchPhase.COMPLETE;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchProfile profile; // only for explain=true
     
     // Constructors
     public SearchResponse() {}
@@ -42,4 +53,65 @@ public class SearchResponse {
     public void setTotalResults(int totalResults) {
         this.totalResults = totalResults;
     }
+    
+    public boolean isPartial() {
+        return partial;
+    }
+    
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+    
+    public SearchPhase getPhase() {
+        return phase;
+    }
+    
+    public void setPhase(SearchPhase phase) {
+        this.phase = phase;
+    }
+    
+    public SearchProfile getProfile() {
+        return profile;
+    }
+    
+    public void setProfile(SearchProfile profile) {
+        this.profile = profile;
+    }
+    
+    // Shared dictionaries for the codes referenced by trip legs
+    public Map<String, AirportSummary> getAirports() {
+        Map<String, AirportSummary> airports = new TreeMap<>();
+        if (trips != null) {
+            for (Trip trip : trips) {
+                if (trip.getFlights() == null) {
+                    continue;
+                }
+                for (Flight flight : trip.getFlights()) {
+                    airports.computeIfAbsent(flight.getSourceAirport().getCode(),
+                            code -> ItineraryMapper.INSTANCE.toAirport(flight.getSourceAirport()));
+                    airports.computeIfAbsent(flight.getDestinationAirport().getCode(),
+                            code -> ItineraryMapper.INSTANCE.toAirport(flight.getDestinationAirport()));
+                }
+            }
+        }
+        return airports;
+    }
+    
+    public Map<String, AirlineSummary> getAirlines() {
+        Map<String, AirlineSummary> airlines = new TreeMap<>();
+        if (trips != null) {
+            for (Trip trip : trips) {
+                if (trip.getFlights() == null) {
+                    continue;
+                }
+                for (Flight flight : trip.getFlights()) {
+                    for (FlightAirline flightAirline : flight.getFlightAirlines()) {
+                        airlines.computeIfAbsent(flightAirline.getAirline().getCode(),
+                                code -> ItineraryMapper.INSTANCE.toAirline(flightAirline.getAirline()));
+                    }
+                }
+            }
+        }
+        return airlines;
+    }
 }
@@ -0,0 +1,16 @@
+package edu.mit.sidpac.flightsearch.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A planning search that ran over the slow-search threshold, kept as a benchmark input.
+ * Airport codes are upper-cased and timeoutMs is the budget the search actually ran with;
+ * flightsLoaded is the schedule size the search saw, the closest thing to a data version.
+ */
+public record SlowSearch(LocalDateTime recordedAt, String sourceAirport, String destinationAirport,
+                         LocalDateTime departureTime, long timeoutMs, double totalMillis,
+                         Map<String, Double> phaseMillis, int flightsLoaded, int directCandidates,
+                         int firstLegCandidates, int secondLegCandidates, int pricedCandidates,
+                         int faresEvaluated, int results, boolean partial, SearchPhase phase) {
+}
@@ -1,6 +1,8 @@
 package edu.mit.sidpac.flightsearch.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.mapper.ItineraryMapper;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -39,6 +41,7 @@ public class Trip {
         this.totalPrice = totalPrice;
     }
     
+    @JsonIgnore
     public List<Flight> getFlights() {
         return flights;
     }
@@ -82,7 +85,7 @@ public class Trip {
         return airline;
     }
     
-    public List<Flight> getLegs() {
-        return flights;
+    public List<LegSummary> getLegs() {
+        return flights != null ? ItineraryMapper.INSTANCE.toLegs(flights) : List.of();
     }
 }
@@ -4,12 +4,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "airports")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "airports")
 public class Airport extends BaseEntity {
     
     @NotBlank
@@ -32,10 +36,10 @@ public class Airport extends BaseEntity {
     @Column(nullable = false, length = 50)
     private String country;
     
-    @OneToMany(mappedBy = "sourceAirport", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "sourceAirport", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Flight> departingFlights = new HashSet<>();
     
-    @OneToMany(mappedBy = "destinationAirport", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "destinationAirport", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Flight> arrivingFlights = new HashSet<>();
     
     // Constructors
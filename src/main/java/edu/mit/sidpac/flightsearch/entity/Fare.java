@@ -12,8 +12,11 @@ import java.util.Set;
 
 @Entity
 @Table(name = "fares")
+@NamedEntityGraph(name = Fare.WITH_RESTRICTIONS, attributeNodes = @NamedAttributeNode("restrictions"))
 public class Fare extends BaseEntity {
     
+    public static final String WITH_RESTRICTIONS = "Fare.withRestrictions";
+    
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "airline_id", nullable = false)
     private Airline airline;
@@ -31,7 +34,7 @@ public class Fare extends BaseEntity {
     @Column(columnDefinition = "TEXT")
     private String description;
     
-    @OneToMany(mappedBy = "fare", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "fare", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<FareRestriction> restrictions = new HashSet<>();
     
     // Constructors
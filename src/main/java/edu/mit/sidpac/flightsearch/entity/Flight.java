@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -11,8 +12,22 @@ import java.util.Set;
 
 @Entity
 @Table(name = "flights")
+@NamedEntityGraph(name = Flight.WITH_AIRPORTS, attributeNodes = {
+    @NamedAttributeNode("sourceAirport"),
+    @NamedAttributeNode("destinationAirport")
+})
+@NamedEntityGraph(name = Flight.WITH_AIRLINES, attributeNodes = {
+    @NamedAttributeNode("sourceAirport"),
+    @NamedAttributeNode("destinationAirport"),
+    @NamedAttributeNode(value = "flightAirlines", subgraph = "airlines")
+}, subgraphs = @NamedSubgraph(name = "airlines", attributeNodes = @NamedAttributeNode("airline")))
 public class Flight extends BaseEntity {
     
+    // Fetch plans for the read paths: list queries that page with a Limit use WITH_AIRPORTS and
+    // let the airline collection batch-load, everything else fetches the codeshares up front
+    public static final String WITH_AIRPORTS = "Flight.withAirports";
+    public static final String WITH_AIRLINES = "Flight.withAirlines";
+    
     @NotBlank
     @Size(max = 10)
     @Column(name = "flight_number", nullable = false, length = 10)
@@ -34,7 +49,8 @@ public class Flight extends BaseEntity {
     @Column(name = "arrival_time", nullable = false)
     private LocalDateTime arrivalTime;
     
-    @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private Set<FlightAirline> flightAirlines = new HashSet<>();
     
     // Constructors
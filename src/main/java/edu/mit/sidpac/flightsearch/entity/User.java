@@ -1,5 +1,6 @@
 package edu.mit.sidpac.flightsearch.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -45,7 +46,7 @@ public class User extends BaseEntity {
     @Column(name = "assigned_airline_code", length = 3)
     private String assignedAirlineCode;
     
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<UserSession> sessions = new HashSet<>();
     
     // Constructors
@@ -119,6 +120,7 @@ public class User extends BaseEntity {
         this.role = role;
     }
     
+    @JsonIgnore
     public Set<UserSession> getSessions() {
         return sessions;
     }
@@ -7,7 +7,7 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_sessions")
+@Table(name = "user_sessions", indexes = @Index(name = "idx_user_sessions_expires_at", columnList = "expires_at"))
 public class UserSession extends BaseEntity {
     
     @ManyToOne(fetch = FetchType.EAGER)
@@ -15,7 +15,7 @@ public class UserSession extends BaseEntity {
     private User user;
     
     @NotBlank
-    @Column(name = "token_hash", nullable = false)
+    @Column(name = "token_hash", nullable = false, unique = true)
     private String tokenHash;
     
     @Column(name = "refresh_token_hash")
@@ -0,0 +1,7 @@
+package edu.mit.sidpac.flightsearch.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
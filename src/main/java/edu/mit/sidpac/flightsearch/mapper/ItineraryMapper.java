@@ -0,0 +1,45 @@
+package edu.mit.sidpac.flightsearch.mapper;
+
+import edu.mit.sidpac.flightsearch.dto.AirlineSummary;
+import edu.mit.sidpac.flightsearch.dto.AirportSummary;
+import edu.mit.sidpac.flightsearch.dto.LegSummary;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps search entities to the lean itinerary DTOs used in search responses.
+ */
+@Mapper
+public interface ItineraryMapper {
+    
+    ItineraryMapper INSTANCE = Mappers.getMapper(ItineraryMapper.class);
+    
+    @Mapping(target = "sourceAirportCode", source = "sourceAirport.code")
+    @Mapping(target = "destinationAirportCode", source = "destinationAirport.code")
+    @Mapping(target = "airlineCodes", source = "flightAirlines")
+    LegSummary toLeg(Flight flight);
+    
+    List<LegSummary> toLegs(List<Flight> flights);
+    
+    AirportSummary toAirport(Airport airport);
+    
+    AirlineSummary toAirline(Airline airline);
+    
+    default List<String> toAirlineCodes(Set<FlightAirline> flightAirlines) {
+        if (flightAirlines == null) {
+            return List.of();
+        }
+        return flightAirlines.stream()
+                .map(flightAirline -> flightAirline.getAirline().getCode())
+                .sorted()
+                .toList();
+    }
+}
@@ -1,8 +1,11 @@
 package edu.mit.sidpac.flightsearch.repository;
 
 import edu.mit.sidpac.flightsearch.entity.Airline;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,8 @@ import java.util.Optional;
 @Repository
 public interface AirlineRepository extends JpaRepository<Airline, String> {
     
+    // Code lookups are served from the query cache; entities themselves come from the "airlines" region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Airline> findByCode(String code);
     
     List<Airline> findByCountry(String country);
@@ -19,5 +24,6 @@ public interface AirlineRepository extends JpaRepository<Airline, String> {
     @Query("SELECT a FROM Airline a WHERE a.code LIKE %:searchTerm% OR a.name LIKE %:searchTerm%")
     List<Airline> findBySearchTerm(@Param("searchTerm") String searchTerm);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCode(String code);
 }
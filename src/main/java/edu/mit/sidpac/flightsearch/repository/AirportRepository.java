@@ -1,8 +1,11 @@
 package edu.mit.sidpac.flightsearch.repository;
 
 import edu.mit.sidpac.flightsearch.entity.Airport;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +15,8 @@ import java.util.Optional;
 @Repository
 public interface AirportRepository extends JpaRepository<Airport, String> {
     
+    // Code lookups are served from the query cache; entities themselves come from the "airports" region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Airport> findByCode(String code);
     
     List<Airport> findByCity(String city);
@@ -21,5 +26,6 @@ public interface AirportRepository extends JpaRepository<Airport, String> {
     @Query("SELECT a FROM Airport a WHERE a.code LIKE %:searchTerm% OR a.name LIKE %:searchTerm% OR a.city LIKE %:searchTerm%")
     List<Airport> findBySearchTerm(@Param("searchTerm") String searchTerm);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCode(String code);
 }
@@ -2,6 +2,7 @@ package edu.mit.sidpac.flightsearch.repository;
 
 import edu.mit.sidpac.flightsearch.entity.Fare;
 import edu.mit.sidpac.flightsearch.entity.RestrictionType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,34 +10,48 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FareRepository extends JpaRepository<Fare, String> {
     
+    @Override
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
+    List<Fare> findAll();
+    
+    @Override
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
+    Optional<Fare> findById(String id);
+    
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
     @Query("SELECT f FROM Fare f WHERE f.airline.code = :airlineCode")
     List<Fare> findFaresByAirlineCode(@Param("airlineCode") String airlineCode);
     
+    // Restriction filters use EXISTS so the fetched restriction collection stays complete
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
     @Query("SELECT f FROM Fare f " +
-           "JOIN f.restrictions r " +
            "WHERE f.airline.code = :airlineCode " +
-           "AND r.restrictionType = :restrictionType")
+           "AND EXISTS (SELECT 1 FROM FareRestriction r WHERE r.fare = f AND r.restrictionType = :restrictionType)")
     List<Fare> findFaresByAirlineAndRestrictionType(@Param("airlineCode") String airlineCode, 
                                                    @Param("restrictionType") RestrictionType restrictionType);
     
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
     @Query("SELECT f FROM Fare f " +
-           "JOIN f.restrictions r " +
            "WHERE f.airline.code = :airlineCode " +
-           "AND r.restrictionType = :restrictionType AND r.restrictionValue = :restrictionValue")
+           "AND EXISTS (SELECT 1 FROM FareRestriction r WHERE r.fare = f " +
+           "AND r.restrictionType = :restrictionType AND r.restrictionValue = :restrictionValue)")
     List<Fare> findFaresByAirlineAndRestriction(@Param("airlineCode") String airlineCode, 
                                                @Param("restrictionType") RestrictionType restrictionType,
                                                @Param("restrictionValue") String restrictionValue);
     
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
     @Query("SELECT f FROM Fare f WHERE f.airline.code = :airlineCode " +
            "AND f.basePrice BETWEEN :minPrice AND :maxPrice")
     List<Fare> findFaresByAirlineAndPriceRange(@Param("airlineCode") String airlineCode, 
                                               @Param("minPrice") BigDecimal minPrice, 
                                               @Param("maxPrice") BigDecimal maxPrice);
     
+    @EntityGraph(Fare.WITH_RESTRICTIONS)
     @Query("SELECT f FROM Fare f WHERE f.airline.code = :airlineCode " +
            "AND NOT EXISTS (SELECT r FROM FareRestriction r WHERE r.fare = f)")
     List<Fare> findFaresWithoutRestrictions(@Param("airlineCode") String airlineCode);
@@ -1,45 +1,120 @@
 package edu.mit.sidpac.flightsearch.repository;
 
+import edu.mit.sidpac.flightsearch.dto.FlightExportRow;
 import edu.mit.sidpac.flightsearch.entity.Flight;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, String> {
     
+    @Override
+    @EntityGraph(Flight.WITH_AIRLINES)
+    List<Flight> findAll();
+    
+    @Override
+    @EntityGraph(Flight.WITH_AIRLINES)
+    List<Flight> findAll(Sort sort);
+    
+    @Override
+    @EntityGraph(Flight.WITH_AIRLINES)
+    Optional<Flight> findById(String id);
+    
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.sourceAirport.code = :sourceCode AND f.destinationAirport.code = :destinationCode")
     List<Flight> findDirectFlights(@Param("sourceCode") String sourceCode, @Param("destinationCode") String destinationCode);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.sourceAirport.code = :sourceCode")
     List<Flight> findFlightsFromAirport(@Param("sourceCode") String sourceCode);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.destinationAirport.code = :destinationCode")
     List<Flight> findFlightsToAirport(@Param("destinationCode") String destinationCode);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.departureTime >= :startTime AND f.departureTime <= :endTime")
     List<Flight> findFlightsByDepartureTimeRange(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.sourceAirport.code = :sourceCode AND f.departureTime >= :departureTime")
     List<Flight> findFlightsFromAirportAfterTime(@Param("sourceCode") String sourceCode, @Param("departureTime") LocalDateTime departureTime);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f WHERE f.destinationAirport.code = :destinationCode AND f.arrivalTime <= :arrivalTime")
     List<Flight> findFlightsToAirportBeforeTime(@Param("destinationCode") String destinationCode, @Param("arrivalTime") LocalDateTime arrivalTime);
     
-    @Query("SELECT DISTINCT f FROM Flight f " +
-           "JOIN f.flightAirlines fa " +
-           "WHERE fa.airline.code = :airlineCode")
+    // Airline filters use EXISTS so the fetched codeshare collection is not narrowed to the filtered airline
+    @EntityGraph(Flight.WITH_AIRLINES)
+    @Query("SELECT f FROM Flight f " +
+           "WHERE EXISTS (SELECT 1 FROM FlightAirline fa WHERE fa.flight = f AND fa.airline.code = :airlineCode)")
     List<Flight> findFlightsByAirline(@Param("airlineCode") String airlineCode);
     
+    @EntityGraph(Flight.WITH_AIRLINES)
     @Query("SELECT f FROM Flight f " +
-           "JOIN f.flightAirlines fa " +
-           "WHERE fa.airline.code = :airlineCode " +
+           "WHERE EXISTS (SELECT 1 FROM FlightAirline fa WHERE fa.flight = f AND fa.airline.code = :airlineCode) " +
            "AND f.sourceAirport.code = :sourceCode AND f.destinationAirport.code = :destinationCode")
     List<Flight> findFlightsByAirlineAndRoute(@Param("airlineCode") String airlineCode, 
                                             @Param("sourceCode") String sourceCode, 
                                             @Param("destinationCode") String destinationCode);
+    
+    // Keyset pagination on (departureTime, id); backed by idx_flights_departure_time_id
+    @EntityGraph(Flight.WITH_AIRPORTS)
+    @Query("SELECT f FROM Flight f ORDER BY f.departureTime ASC, f.id ASC")
+    List<Flight> findFirstPageAscending(Limit limit);
+    
+    @EntityGraph(Flight.WITH_AIRPORTS)
+    @Query("SELECT f FROM Flight f " +
+           "WHERE f.departureTime > :departureTime OR (f.departureTime = :departureTime AND f.id > :id) " +
+           "ORDER BY f.departureTime ASC, f.id ASC")
+    List<Flight> findPageAfter(@Param("departureTime") LocalDateTime departureTime, @Param("id") String id, Limit limit);
+    
+    @EntityGraph(Flight.WITH_AIRPORTS)
+    @Query("SELECT f FROM Flight f ORDER BY f.departureTime DESC, f.id DESC")
+    List<Flight> findFirstPageDescending(Limit limit);
+    
+    @EntityGraph(Flight.WITH_AIRPORTS)
+    @Query("SELECT f FROM Flight f " +
+           "WHERE f.departureTime < :departureTime OR (f.departureTime = :departureTime AND f.id < :id) " +
+           "ORDER BY f.departureTime DESC, f.id DESC")
+    List<Flight> findPageBefore(@Param("departureTime") LocalDateTime departureTime, @Param("id") String id, Limit limit);
+    
+    // Forward-only streams for the schedule export; scalar rows keep the persistence context empty
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new edu.mit.sidpac.flightsearch.dto.FlightExportRow(" +
+           "f.id, f.flightNumber, f.sourceAirport.code, f.destinationAirport.code, f.departureTime, f.arrivalTime, a.code) " +
+           "FROM Flight f LEFT JOIN f.flightAirlines fa LEFT JOIN fa.airline a " +
+           "WHERE f.departureTime >= :from AND f.departureTime < :to " +
+           "ORDER BY f.departureTime ASC, f.id ASC")
+    Stream<FlightExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new edu.mit.sidpac.flightsearch.dto.FlightExportRow(" +
+           "f.id, f.flightNumber, f.sourceAirport.code, f.destinationAirport.code, f.departureTime, f.arrivalTime, a.code) " +
+           "FROM Flight f LEFT JOIN f.flightAirlines fa LEFT JOIN fa.airline a " +
+           "WHERE f.departureTime >= :from AND f.departureTime < :to " +
+           "AND EXISTS (SELECT 1 FROM FlightAirline x WHERE x.flight = f AND x.airline.code = :airlineCode) " +
+           "ORDER BY f.departureTime ASC, f.id ASC")
+    Stream<FlightExportRow> streamForExportByAirline(@Param("airlineCode") String airlineCode,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
 }
@@ -1,6 +1,7 @@
 package edu.mit.sidpac.flightsearch.repository;
 
 import edu.mit.sidpac.flightsearch.entity.UserSession;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,13 +28,8 @@ public interface UserSessionRepository extends JpaRepository<UserSession, String
     @Query("DELETE FROM UserSession s WHERE s.user.id = :userId")
     void deleteAllSessionsByUserId(@Param("userId") String userId);
     
-    @Modifying
-    @Query("DELETE FROM UserSession s WHERE s.expiresAt < :now")
-    void deleteExpiredSessions(@Param("now") LocalDateTime now);
-    
-    @Modifying
-    @Query("DELETE FROM UserSession s WHERE s.refreshExpiresAt < :now")
-    void deleteExpiredRefreshTokens(@Param("now") LocalDateTime now);
+    @Query("SELECT s.id FROM UserSession s WHERE s.expiresAt < :now ORDER BY s.expiresAt")
+    List<String> findExpiredSessionIds(@Param("now") LocalDateTime now, Pageable pageable);
     
     @Modifying
     @Query("DELETE FROM UserSession s WHERE s.tokenHash = :tokenHash")
@@ -0,0 +1,25 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.entity.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+/**
+ * UserDetails that keeps the User entity it was built from, so a successful
+ * authentication hands the caller the account without a second lookup.
+ */
+public class AccountUserDetails extends org.springframework.security.core.userdetails.User {
+    
+    private final transient User account;
+    
+    public AccountUserDetails(User account) {
+        super(account.getUsername(), account.getPasswordHash(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + account.getRole().name())));
+        this.account = account;
+    }
+    
+    public User getAccount() {
+        return account;
+    }
+}
@@ -0,0 +1,183 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for the public search endpoints.
+ * Each client gets a token bucket (keyed by authenticated user, otherwise by remote address)
+ * and all searches share a global concurrency limit. Rejected requests get a fast 429 with
+ * Retry-After instead of queueing on a Tomcat thread. Admin traffic uses its own, larger
+ * quota or bypasses admission entirely when configured to.
+ * At most max-tracked-clients anonymous addresses get their own bucket; once the map is full,
+ * new addresses share one overflow bucket until idle buckets are swept.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long CONCURRENCY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    @Value("${flight-search.admission.enabled:true}")
+    private boolean enabled = true;
+    
+    @Value("${flight-search.admission.capacity:20}")
+    private double capacity = 20;
+    
+    @Value("${flight-search.admission.refill-per-second:5}")
+    private double refillPerSecond = 5;
+    
+    @Value("${flight-search.admission.admin-capacity:200}")
+    private double adminCapacity = 200;
+    
+    @Value("${flight-search.admission.admin-refill-per-second:50}")
+    private double adminRefillPerSecond = 50;
+    
+    @Value("${flight-search.admission.admin-bypass:false}")
+    private boolean adminBypass = false;
+    
+    @Value("${flight-search.admission.max-concurrent-searches:32}")
+    private int maxConcurrentSearches = 32;
+    
+    @Value("${flight-search.admission.max-tracked-clients:10000}")
+    private int maxTrackedClients = 10000;
+    
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private TokenBucket overflowBucket;
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+    private Semaphore searchPermits;
+    
+    @PostConstruct
+    void init() {
+        searchPermits = new Semaphore(maxConcurrentSearches);
+        overflowBucket = new TokenBucket(capacity, refillPerSecond, System.nanoTime());
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || !isSearchEndpoint(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = isAdmin(authentication);
+        
+        if (admin && adminBypass) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long now = System.nanoTime();
+        boolean authenticated = isAuthenticated(authentication);
+        String clientKey = authenticated ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+        
+        long waitNanos = tryConsume(clientKey, authenticated, admin, now);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        
+        if (!searchPermits.tryAcquire()) {
+            reject(response, CONCURRENCY_RETRY_NANOS);
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            searchPermits.release();
+            sweepIdleBuckets(now);
+        }
+    }
+    
+    private boolean isSearchEndpoint(String path) {
+        return "/api/flights/planning".equals(path) || "/api/flights/search".equals(path);
+    }
+    
+    /**
+     * Takes a token from the client's bucket. The bucket is used inside compute so a concurrent sweep
+     * cannot drop it between lookup and consume, which would hand the client a fresh full bucket.
+     */
+    private long tryConsume(String clientKey, boolean authenticated, boolean admin, long now) {
+        long[] waitNanos = new long[1];
+        TokenBucket existing = buckets.computeIfPresent(clientKey, (key, bucket) -> {
+            waitNanos[0] = bucket.tryConsume(now);
+            return bucket;
+        });
+        if (existing != null) {
+            return waitNanos[0];
+        }
+        
+        // Users are bounded by the accounts that exist; only addresses can be minted at will
+        if (!authenticated && buckets.size() >= maxTrackedClients) {
+            sweepIdleBuckets(now);
+            if (buckets.size() >= maxTrackedClients) {
+                return overflowBucket.tryConsume(now);
+            }
+        }
+        buckets.compute(clientKey, (key, bucket) -> {
+            if (bucket == null) {
+                bucket = admin
+                        ? new TokenBucket(adminCapacity, adminRefillPerSecond, now)
+                        : new TokenBucket(capacity, refillPerSecond, now);
+            }
+            waitNanos[0] = bucket.tryConsume(now);
+            return bucket;
+        });
+        return waitNanos[0];
+    }
+    
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+    
+    private boolean isAdmin(Authentication authentication) {
+        if (!isAuthenticated(authentication)) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+    
+    private void reject(HttpServletResponse response, long waitNanos) {
+        long retryAfterSeconds = Math.max(1L, (long) Math.ceil(waitNanos / 1_000_000_000d));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    }
+    
+    private void sweepIdleBuckets(long now) {
+        // Drop full buckets once the map reaches its bound; at most one sweep per interval across all threads
+        if (buckets.size() < maxTrackedClients) {
+            return;
+        }
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+        for (String key : buckets.keySet()) {
+            // Checked under the entry's lock, so a bucket being consumed from is never removed
+            buckets.computeIfPresent(key, (k, bucket) -> bucket.isFull(System.nanoTime()) ? null : bucket);
+        }
+    }
+}
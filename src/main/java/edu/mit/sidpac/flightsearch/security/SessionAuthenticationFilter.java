@@ -1,8 +1,5 @@
 package edu.mit.sidpac.flightsearch.security;
 
-import edu.mit.sidpac.flightsearch.entity.User;
-import edu.mit.sidpac.flightsearch.entity.UserSession;
-import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +18,7 @@ import java.util.Collections;
 public class SessionAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
-    private UserSessionRepository userSessionRepository;
+    private SessionCache sessionCache;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -46,30 +43,16 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
             }
             
             try {
-                UserSession session = userSessionRepository.findByTokenHash(sessionId)
-                        .orElse(null);
+                // Expired sessions are cleaned up by the cache on lookup
+                SessionPrincipal principal = sessionCache.resolve(sessionId);
                 
-                if (session == null || session.isExpired()) {
+                if (principal == null) {
                     // Invalid or expired session
-                    if (session != null && session.isExpired()) {
-                        // Clean up expired session
-                        userSessionRepository.delete(session);
-                    }
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     return;
                 }
                 
-                User user = session.getUser();
-                
-                // Create authentication object
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        user.getUsername(), 
-                        null, 
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-                    );
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(authenticationFor(principal));
             } catch (Exception e) {
                 // Session is invalid
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -78,24 +61,10 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
         } else if (sessionId != null && !sessionId.trim().isEmpty()) {
             // For public endpoints, still try to authenticate if session is provided
             try {
-                UserSession session = userSessionRepository.findByTokenHash(sessionId)
-                        .orElse(null);
+                SessionPrincipal principal = sessionCache.resolve(sessionId);
                 
-                if (session != null && !session.isExpired()) {
-                    User user = session.getUser();
-                    
-                    // Create authentication object
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(
-                            user.getUsername(), 
-                            null, 
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
-                        );
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } else if (session != null && session.isExpired()) {
-                    // Clean up expired session
-                    userSessionRepository.delete(session);
+                if (principal != null) {
+                    SecurityContextHolder.getContext().setAuthentication(authenticationFor(principal));
                 }
             } catch (Exception e) {
                 // Session is invalid, continue without authentication for public endpoints
@@ -106,6 +75,15 @@ public class SessionAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private UsernamePasswordAuthenticationToken authenticationFor(SessionPrincipal principal) {
+        // The principal carries the user snapshot so AuthService.getCurrentUser() needs no query
+        return new UsernamePasswordAuthenticationToken(
+            principal,
+            null,
+            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.role().name()))
+        );
+    }
+    
     private boolean isProtectedEndpoint(HttpServletRequest request) {
         String method = request.getMethod();
         String path = request.getRequestURI();
@@ -0,0 +1,129 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.mit.sidpac.flightsearch.entity.UserSession;
+import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Bounded cache of session token to principal in front of UserSessionRepository.
+ * Entries live until the session expires or for at most max-ttl, whichever comes first, so
+ * sessions removed outside this process (another node, the database) are dropped within that bound.
+ * In signed token mode lookups and invalidations go to SignedTokenService instead and nothing is cached.
+ */
+@Component
+public class SessionCache {
+    
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+    
+    @Autowired
+    private SignedTokenService signedTokenService;
+    
+    @Value("${flight-search.session-cache.max-size:10000}")
+    private long maxSize = 10_000;
+    
+    @Value("${flight-search.session-cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds = 300;
+    
+    private Cache<String, SessionPrincipal> sessions;
+    
+    @PostConstruct
+    void init() {
+        long maxTtlNanos = Duration.ofSeconds(maxTtlSeconds).toNanos();
+        sessions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, SessionPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, SessionPrincipal principal, long currentTime) {
+                        long untilExpiry = Duration.between(LocalDateTime.now(), principal.expiresAt()).toNanos();
+                        return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String token, SessionPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(token, principal, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String token, SessionPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    /**
+     * Principal for a live session, or null if the token is unknown or expired.
+     * Expired sessions found in the database are deleted on the way.
+     */
+    public SessionPrincipal resolve(String token) {
+        if (signedTokenService.isEnabled()) {
+            return signedTokenService.verify(token);
+        }
+        
+        SessionPrincipal cached = sessions.getIfPresent(token);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        
+        UserSession session = userSessionRepository.findByTokenHash(token).orElse(null);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired()) {
+            userSessionRepository.delete(session);
+            sessions.invalidate(token);
+            return null;
+        }
+        
+        SessionPrincipal principal = SessionPrincipal.of(session);
+        sessions.put(token, principal);
+        return principal;
+    }
+    
+    public void invalidate(String token) {
+        if (signedTokenService.isEnabled()) {
+            signedTokenService.revoke(token);
+            return;
+        }
+        runNowAndAfterCommit(() -> sessions.invalidate(token));
+    }
+    
+    public void invalidateUser(String userId) {
+        if (signedTokenService.isEnabled()) {
+            signedTokenService.revokeUser(userId);
+            return;
+        }
+        runNowAndAfterCommit(() -> sessions.asMap().values().removeIf(principal -> principal.userId().equals(userId)));
+    }
+    
+    public long size() {
+        return sessions.estimatedSize();
+    }
+    
+    private void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        // A request racing the deleting transaction may re-cache the old row before it commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.entity.UserRole;
+import edu.mit.sidpac.flightsearch.entity.UserSession;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+
+/**
+ * Authenticated user as resolved from a session, detached from the persistence context.
+ * Carries just what authorization and permission checks need, so it can be cached across requests.
+ */
+public record SessionPrincipal(
+        String userId,
+        String username,
+        UserRole role,
+        String assignedAirlineCode,
+        LocalDateTime expiresAt) implements Principal {
+    
+    public static SessionPrincipal of(UserSession session) {
+        User user = session.getUser();
+        return new SessionPrincipal(user.getId(), user.getUsername(), user.getRole(),
+                user.getAssignedAirlineCode(), session.getExpiresAt());
+    }
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+    
+    /**
+     * Transient User for permission checks; never pass it to a repository.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setAssignedAirlineCode(assignedAirlineCode);
+        return user;
+    }
+}
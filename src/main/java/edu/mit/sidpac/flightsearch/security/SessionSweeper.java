@@ -0,0 +1,103 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically deletes expired rows from user_sessions.
+ * Each batch is its own short transaction so the sweep never holds the write lock for long,
+ * and a run stops after max-batches so a large backlog is worked off over several runs.
+ */
+@Component
+public class SessionSweeper {
+    
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${flight-search.session-sweeper.enabled:true}")
+    private boolean enabled = true;
+    
+    @Value("${flight-search.session-sweeper.batch-size:500}")
+    private int batchSize = 500;
+    
+    @Value("${flight-search.session-sweeper.max-batches:100}")
+    private int maxBatches = 100;
+    
+    private final AtomicLong storedSessions = new AtomicLong();
+    
+    private Timer sweepTimer;
+    private Counter sweptCounter;
+    
+    @PostConstruct
+    void registerMetrics() {
+        sweepTimer = Timer.builder("flight.search.sessions.sweep")
+                .description("Time spent deleting expired sessions")
+                .register(meterRegistry);
+        sweptCounter = Counter.builder("flight.search.sessions.swept")
+                .description("Expired sessions deleted by the sweeper")
+                .register(meterRegistry);
+        Gauge.builder("flight.search.sessions.stored", storedSessions, AtomicLong::get)
+                .description("Rows in user_sessions as of the last sweep")
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(initialDelayString = "${flight-search.session-sweeper.initial-delay-ms:60000}",
+            fixedDelayString = "${flight-search.session-sweeper.interval-ms:300000}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+    
+    /**
+     * Deletes sessions that expired before now and returns how many were removed.
+     * Only expires_at is swept: AuthService.createSession sets refresh_expires_at to the same time,
+     * so a session past expires_at has no live refresh token either.
+     */
+    public int sweep() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        
+        return sweepTimer.record(() -> {
+            int deleted = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                Integer removed = transaction.execute(status -> {
+                    List<String> ids = userSessionRepository.findExpiredSessionIds(now, PageRequest.of(0, batchSize));
+                    if (!ids.isEmpty()) {
+                        userSessionRepository.deleteAllByIdInBatch(ids);
+                    }
+                    return ids.size();
+                });
+                deleted += removed;
+                if (removed < batchSize) {
+                    break;
+                }
+            }
+            
+            sweptCounter.increment(deleted);
+            storedSessions.set(userSessionRepository.count());
+            return deleted;
+        });
+    }
+}
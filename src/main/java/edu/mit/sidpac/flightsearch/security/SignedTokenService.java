@@ -0,0 +1,197 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.entity.UserRole;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Self-contained session tokens for flight-search.auth.token-mode=signed.
+ * A token is base64url(payload) + "." + base64url(HMAC-SHA256(payload)) and carries the user id, role,
+ * airline scope and expiry, so verifying it needs no database access. Logout revokes the token id, and
+ * a new login revokes everything the user was issued before it; both are held in memory only until the
+ * affected tokens would have expired anyway.
+ */
+@Component
+public class SignedTokenService {
+    
+    private static final String VERSION = "v1";
+    private static final String HMAC = "HmacSHA256";
+    private static final int SWEEP_THRESHOLD = 1024;
+    
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    @Value("${flight-search.auth.token-mode:database}")
+    private String tokenMode = "database";
+    
+    @Value("${flight-search.auth.token-secret:}")
+    private String tokenSecret = "";
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    // Token id -> expiry (epoch seconds) for logged-out tokens
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    
+    // User id -> issue time before which that user's tokens are no longer valid
+    private final ConcurrentHashMap<String, Cutoff> revokedBefore = new ConcurrentHashMap<>();
+    
+    // Latest expiry (epoch seconds) of any token issued so far; bounds how long a cutoff can matter
+    private final AtomicLong latestExpiry = new AtomicLong();
+    
+    private SecretKeySpec key;
+    private ThreadLocal<Mac> mac;
+    
+    @PostConstruct
+    void init() {
+        byte[] secret;
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            secret = new byte[32];
+            random.nextBytes(secret);
+            if (isEnabled()) {
+                System.err.println("flight-search.auth.token-secret is not set; signed tokens will not survive a restart");
+            }
+        } else {
+            secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(secret, HMAC);
+        mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(HMAC);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+    
+    public boolean isEnabled() {
+        return "signed".equalsIgnoreCase(tokenMode);
+    }
+    
+    public String issue(User user, LocalDateTime expiresAt) {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        String payload = String.join("|",
+                VERSION,
+                ENCODER.encodeToString(id),
+                user.getId(),
+                user.getRole().name(),
+                user.getAssignedAirlineCode() != null ? user.getAssignedAirlineCode() : "",
+                Long.toString(System.currentTimeMillis()),
+                Long.toString(toEpochSecond(expiresAt)),
+                user.getUsername());
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        latestExpiry.accumulateAndGet(toEpochSecond(expiresAt), Math::max);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+    
+    /**
+     * Principal for a valid, unexpired and unrevoked token; null for anything else.
+     */
+    public SessionPrincipal verify(String token) {
+        Claims claims = parse(token);
+        if (claims == null || claims.expiresAt < Instant.now().getEpochSecond()) {
+            return null;
+        }
+        if (revokedTokens.containsKey(claims.tokenId)) {
+            return null;
+        }
+        Cutoff cutoff = revokedBefore.get(claims.userId);
+        if (cutoff != null && claims.issuedAtMillis < cutoff.issuedBeforeMillis()) {
+            return null;
+        }
+        return new SessionPrincipal(claims.userId, claims.username, claims.role,
+                claims.airlineCode.isEmpty() ? null : claims.airlineCode,
+                LocalDateTime.ofInstant(Instant.ofEpochSecond(claims.expiresAt), ZoneId.systemDefault()));
+    }
+    
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims != null) {
+            revokedTokens.put(claims.tokenId, claims.expiresAt);
+            sweepIfLarge();
+        }
+    }
+    
+    public void revokeUser(String userId) {
+        // Strictly before now, so a token issued in the same millisecond by the login that triggered this survives
+        revokedBefore.put(userId, new Cutoff(System.currentTimeMillis(), latestExpiry.get()));
+        sweepIfLarge();
+    }
+    
+    public int revokedCount() {
+        return revokedTokens.size();
+    }
+    
+    private void sweepIfLarge() {
+        if (revokedTokens.size() + revokedBefore.size() < SWEEP_THRESHOLD) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        // Every token issued before a cutoff has expired once the latest expiry recorded with it has passed
+        revokedBefore.values().removeIf(cutoff -> cutoff.expiresBy() < now);
+    }
+    
+    private Claims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return null;
+            }
+            
+            String[] fields = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 8);
+            if (fields.length != 8 || !VERSION.equals(fields[0])) {
+                return null;
+            }
+            return new Claims(fields[1], fields[2], UserRole.valueOf(fields[3]), fields[4],
+                    Long.parseLong(fields[5]), Long.parseLong(fields[6]), fields[7]);
+        } catch (IllegalArgumentException e) {
+            // Bad base64, role or number: not a token we issued
+            return null;
+        }
+    }
+    
+    private byte[] sign(byte[] payload) {
+        return mac.get().doFinal(payload);
+    }
+    
+    private long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+    
+    /**
+     * Tokens issued before issuedBeforeMillis are revoked; all of them expire by expiresBy (epoch seconds).
+     */
+    private record Cutoff(long issuedBeforeMillis, long expiresBy) {
+    }
+    
+    private record Claims(String tokenId, String userId, UserRole role, String airlineCode,
+                          long issuedAtMillis, long expiresAt, String username) {
+    }
+}
@@ -0,0 +1,55 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket.
+ * The bucket state is an immutable snapshot swapped with compare-and-set, so
+ * concurrent requests from the same client never block each other.
+ */
+final class TokenBucket {
+    
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+    
+    TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+    
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, nowNanos);
+            if (tokens < 1d) {
+                return (long) Math.ceil((1d - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1d, Math.max(nowNanos, current.timestampNanos())))) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * A full bucket carries no information and can be dropped without changing behaviour.
+     */
+    boolean isFull(long nowNanos) {
+        return refill(state.get(), nowNanos) >= capacity;
+    }
+    
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0L, nowNanos - current.timestampNanos());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+    
+    private record State(double tokens, long timestampNanos) {}
+}
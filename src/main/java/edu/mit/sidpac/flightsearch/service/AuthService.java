@@ -8,6 +8,10 @@ import edu.mit.sidpac.flightsearch.entity.UserRole;
 import edu.mit.sidpac.flightsearch.entity.UserSession;
 import edu.mit.sidpac.flightsearch.repository.UserRepository;
 import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
+import edu.mit.sidpac.flightsearch.security.AccountUserDetails;
+import edu.mit.sidpac.flightsearch.security.SessionCache;
+import edu.mit.sidpac.flightsearch.security.SessionPrincipal;
+import edu.mit.sidpac.flightsearch.security.SignedTokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,6 +41,12 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
     
+    @Autowired
+    private SessionCache sessionCache;
+    
+    @Autowired
+    private SignedTokenService signedTokenService;
+    
     public AuthResponse login(AuthRequest request) {
         // Authenticate user using Spring Security
         Authentication authentication = authenticationManager.authenticate(
@@ -49,23 +59,20 @@ public class AuthService {
         // Set authentication in security context
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
-        // Get user from repository
-        User user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Reuse the account loaded during authentication instead of querying for it again
+        User user;
+        if (authentication.getPrincipal() instanceof AccountUserDetails details) {
+            user = details.getAccount();
+        } else {
+            user = userRepository.findByUsernameOrEmail(request.getUsernameOrEmail())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
         
         // Delete existing sessions
         userSessionRepository.deleteAllSessionsByUserId(user.getId());
+        sessionCache.invalidateUser(user.getId());
         
-        // Create session with session ID
-        String sessionId = UUID.randomUUID().toString();
-        UserSession session = new UserSession(
-                user,
-                sessionId,
-                "no-refresh-token", // Default value for session-based auth
-                LocalDateTime.now().plusHours(24), // 24 hour session
-                LocalDateTime.now().plusHours(24) // Same expiration as session
-        );
-        userSessionRepository.save(session);
+        String sessionId = createSession(user);
         
         return new AuthResponse(sessionId, null, user.getRole().name());
     }
@@ -102,21 +109,22 @@ public class AuthService {
         userRepository.save(user);
         
         // Create session for new user
-        String newSessionId = UUID.randomUUID().toString();
-        UserSession session = new UserSession(
-                user,
-                newSessionId,
-                "no-refresh-token", // Default value for session-based auth
-                LocalDateTime.now().plusHours(24), // 24 hour session
-                LocalDateTime.now().plusHours(24) // Same expiration as session
-        );
-        userSessionRepository.save(session);
+        String newSessionId = createSession(user);
         
         return new AuthResponse(newSessionId, null, user.getRole().name());
     }
     
     @Transactional
     public void logout(String sessionId) {
+        if (signedTokenService.isEnabled()) {
+            if (sessionCache.resolve(sessionId) == null) {
+                throw new RuntimeException("Invalid session ID");
+            }
+            sessionCache.invalidate(sessionId);
+            SecurityContextHolder.clearContext();
+            return;
+        }
+        
         // Check if session exists before attempting to delete
         Optional<UserSession> sessionOpt = userSessionRepository.findByTokenHash(sessionId);
         if (sessionOpt.isEmpty()) {
@@ -126,6 +134,7 @@ public class AuthService {
         // Delete the session directly using the token hash
         // This is more efficient and ensures immediate deletion
         userSessionRepository.deleteByTokenHash(sessionId);
+        sessionCache.invalidate(sessionId);
         
         // Clear security context
         SecurityContextHolder.clearContext();
@@ -137,12 +146,25 @@ public class AuthService {
             throw new RuntimeException("User not authenticated");
         }
         
+        // Session-authenticated requests already carry the user; other authentication types fall back to a lookup
+        if (authentication.getPrincipal() instanceof SessionPrincipal principal) {
+            return principal.toUser();
+        }
+        
         String username = authentication.getName();
         return userRepository.findByUsernameOrEmail(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
     
     public User getCurrentUser(String sessionId) {
+        if (signedTokenService.isEnabled()) {
+            SessionPrincipal principal = sessionCache.resolve(sessionId);
+            if (principal == null) {
+                throw new RuntimeException("Invalid session");
+            }
+            return principal.toUser();
+        }
+        
         UserSession session = userSessionRepository.findByTokenHash(sessionId)
                 .orElseThrow(() -> new RuntimeException("Invalid session"));
         
@@ -153,4 +175,22 @@ public class AuthService {
         
         return session.getUser();
     }
+    
+    private String createSession(User user) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(24); // 24 hour session
+        if (signedTokenService.isEnabled()) {
+            return signedTokenService.issue(user, expiresAt);
+        }
+        
+        String sessionId = UUID.randomUUID().toString();
+        UserSession session = new UserSession(
+                user,
+                sessionId,
+                "no-refresh-token", // Default value for session-based auth
+                expiresAt,
+                expiresAt // Same expiration as session
+        );
+        userSessionRepository.save(session);
+        return sessionId;
+    }
 }
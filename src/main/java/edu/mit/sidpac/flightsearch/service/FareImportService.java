@@ -0,0 +1,290 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.dto.IngestReport;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.RestrictionType;
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.exception.InsufficientPermissionsException;
+import edu.mit.sidpac.flightsearch.repository.AirlineRepository;
+import edu.mit.sidpac.flightsearch.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces an airline's whole fare catalog from a tariff file.
+ * The file is parsed and every restriction validated before the database is touched; the old
+ * catalog is then deleted and the new one batch-inserted in a single transaction, so concurrent
+ * searches price against either the previous tariff or the new one, never a mix.
+ */
+@Service
+public class FareImportService {
+    
+    private static final String DELETE_RESTRICTIONS =
+            "DELETE FROM fare_restrictions WHERE fare_id IN (SELECT id FROM fares WHERE airline_id = ?)";
+    
+    private static final String DELETE_FARES = "DELETE FROM fares WHERE airline_id = ?";
+    
+    private static final String INSERT_FARE =
+            "INSERT INTO fares (id, airline_id, base_price, fare_name, description, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_RESTRICTION =
+            "INSERT INTO fare_restrictions (id, fare_id, restriction_type, restriction_value, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private AirlineRepository airlineRepository;
+    
+    @Autowired
+    private AirportRepository airportRepository;
+    
+    @Autowired
+    private PermissionService permissionService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${flight-search.ingest.chunk-size:500}")
+    private int batchSize = 500;
+    
+    @Value("${flight-search.ingest.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+    
+    public enum Format {
+        NDJSON, CSV
+    }
+    
+    private record ParsedRestriction(RestrictionType type, String value) {
+    }
+    
+    private record ParsedFare(String fareName, BigDecimal basePrice, String description,
+                              List<ParsedRestriction> restrictions) {
+    }
+    
+    /**
+     * Validates the whole tariff and, only if every row is valid, swaps it in for the airline's current fares.
+     * The returned report has {@code inserted == 0} whenever anything was rejected.
+     */
+    public IngestReport replaceCatalog(User user, String airlineCode, Format format, InputStream body) throws IOException {
+        if (!permissionService.canManageFares(user, airlineCode)) {
+            throw new InsufficientPermissionsException("Insufficient permissions to manage fares for airline: " + airlineCode);
+        }
+        Airline airline = airlineRepository.findByCode(airlineCode)
+                .orElseThrow(() -> new RuntimeException("Airline not found: " + airlineCode));
+        Set<String> airportCodes = airportRepository.findAll().stream()
+                .map(Airport::getCode)
+                .collect(Collectors.toSet());
+        
+        IngestReport report = new IngestReport();
+        List<ParsedFare> fares = new ArrayList<>();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvLines.split(line).stream().map(String::trim).toList();
+                continue;
+            }
+            report.recordReceived();
+            
+            try {
+                fares.add(format == Format.CSV ? parseCsv(header, line, airportCodes) : parseJson(line, airportCodes));
+            } catch (IllegalArgumentException e) {
+                report.recordRejected(lineNumber, e.getMessage(), maxReportedErrors);
+            }
+        }
+        
+        if (report.getRejected() > 0) {
+            return report;
+        }
+        
+        swap(airline.getId(), fares);
+        report.recordInserted(fares.size());
+        return report;
+    }
+    
+    private void swap(String airlineId, List<ParsedFare> fares) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> fareRows = new ArrayList<>(fares.size());
+        List<Object[]> restrictionRows = new ArrayList<>();
+        for (ParsedFare fare : fares) {
+            String fareId = UUID.randomUUID().toString();
+            fareRows.add(new Object[] {fareId, airlineId, fare.basePrice(), fare.fareName(), fare.description(), now, now});
+            for (ParsedRestriction restriction : fare.restrictions()) {
+                restrictionRows.add(new Object[] {
+                        UUID.randomUUID().toString(), fareId, restriction.type().name(), restriction.value(), now});
+            }
+        }
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_RESTRICTIONS, airlineId);
+            jdbcTemplate.update(DELETE_FARES, airlineId);
+            for (int from = 0; from < fareRows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_FARE, fareRows.subList(from, Math.min(from + batchSize, fareRows.size())));
+            }
+            for (int from = 0; from < restrictionRows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_RESTRICTION,
+                        restrictionRows.subList(from, Math.min(from + batchSize, restrictionRows.size())));
+            }
+        });
+    }
+    
+    private ParsedFare parseJson(String line, Set<String> airportCodes) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        
+        List<ParsedRestriction> restrictions = new ArrayList<>();
+        JsonNode restrictionNodes = node.path("restrictions");
+        if (!restrictionNodes.isMissingNode() && !restrictionNodes.isNull() && !restrictionNodes.isArray()) {
+            throw new IllegalArgumentException("restrictions must be an array");
+        }
+        for (JsonNode restriction : restrictionNodes) {
+            restrictions.add(parseRestriction(restriction.path("type").asText(null),
+                    restriction.path("value").asText(null), airportCodes));
+        }
+        
+        return toFare(node.path("fareName").asText(null), node.path("basePrice").asText(null),
+                node.path("description").asText(null), restrictions);
+    }
+    
+    private ParsedFare parseCsv(List<String> header, String line, Set<String> airportCodes) {
+        List<String> values = CsvLines.split(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " columns but found " + values.size());
+        }
+        
+        String fareName = null;
+        String basePrice = null;
+        String description = null;
+        List<ParsedRestriction> restrictions = new ArrayList<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).trim();
+            switch (header.get(i)) {
+                case "fareName" -> fareName = value;
+                case "basePrice" -> basePrice = value;
+                case "description" -> description = value.isEmpty() ? null : value;
+                case "restrictions" -> {
+                    // TYPE=value pairs separated by semicolons, e.g. "ENDPOINT=BOS;MULTI_LEG=2"
+                    for (String pair : value.split(";")) {
+                        if (pair.isBlank()) {
+                            continue;
+                        }
+                        int separator = pair.indexOf('=');
+                        if (separator < 0) {
+                            throw new IllegalArgumentException("Restriction must be TYPE=value: " + pair.trim());
+                        }
+                        restrictions.add(parseRestriction(pair.substring(0, separator).trim(),
+                                pair.substring(separator + 1).trim(), airportCodes));
+                    }
+                }
+                default -> { }
+            }
+        }
+        return toFare(fareName, basePrice, description, restrictions);
+    }
+    
+    private ParsedFare toFare(String fareName, String basePrice, String description, List<ParsedRestriction> restrictions) {
+        if (fareName == null || fareName.isBlank()) {
+            throw new IllegalArgumentException("Missing fareName");
+        }
+        if (fareName.length() > 100) {
+            throw new IllegalArgumentException("Fare name is longer than 100 characters");
+        }
+        if (basePrice == null || basePrice.isBlank()) {
+            throw new IllegalArgumentException("Missing basePrice");
+        }
+        
+        BigDecimal price;
+        try {
+            price = new BigDecimal(basePrice.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid basePrice: " + basePrice);
+        }
+        if (price.signum() <= 0 || price.scale() > 2) {
+            throw new IllegalArgumentException("basePrice must be positive with at most two decimals: " + basePrice);
+        }
+        return new ParsedFare(fareName.trim(), price, description, restrictions);
+    }
+    
+    private ParsedRestriction parseRestriction(String type, String value, Set<String> airportCodes) {
+        RestrictionType restrictionType;
+        try {
+            restrictionType = RestrictionType.valueOf(type == null ? "" : type.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown restriction type: " + type);
+        }
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing value for " + restrictionType + " restriction");
+        }
+        String trimmed = value.trim();
+        
+        // Same interpretation FlightSearchService applies at pricing time, checked once here instead
+        switch (restrictionType) {
+            case ENDPOINT -> {
+                if (!airportCodes.contains(trimmed)) {
+                    throw new IllegalArgumentException("ENDPOINT restriction references unknown airport: " + trimmed);
+                }
+            }
+            case DEPARTURE_TIME -> {
+                try {
+                    LocalTime.parse(trimmed);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("DEPARTURE_TIME restriction is not a time of day: " + trimmed);
+                }
+            }
+            case MULTI_LEG -> {
+                try {
+                    if (Integer.parseInt(trimmed) < 1) {
+                        throw new NumberFormatException();
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("MULTI_LEG restriction must be a positive leg count: " + trimmed);
+                }
+            }
+        }
+        return new ParsedRestriction(restrictionType, trimmed);
+    }
+}
@@ -0,0 +1,142 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.dto.FlightExportRow;
+import edu.mit.sidpac.flightsearch.dto.LegSummary;
+import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams the flight schedule straight from a forward-only JDBC cursor to an output stream.
+ * Only the flight currently being assembled is held in memory, whatever the schedule size.
+ */
+@Service
+public class FlightExportService {
+    
+    // Bounds used when the caller does not restrict the departure range
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    private static final String CSV_HEADER =
+            "id,flightNumber,sourceAirportCode,destinationAirportCode,departureTime,arrivalTime,airlineCodes";
+    
+    @Autowired
+    private FlightRepository flightRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+        
+        private final String contentType;
+        
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+    }
+    
+    /**
+     * Writes every matching flight to {@code out} and returns the number of flights written.
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, String airlineCode, LocalDateTime from, LocalDateTime to,
+                       OutputStream out) throws IOException {
+        LocalDateTime lower = from != null ? from : EARLIEST;
+        LocalDateTime upper = to != null ? to : LATEST;
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        
+        long count = 0;
+        try (Stream<FlightExportRow> rows = airlineCode != null
+                ? flightRepository.streamForExportByAirline(airlineCode, lower, upper)
+                : flightRepository.streamForExport(lower, upper)) {
+            
+            Iterator<FlightExportRow> iterator = rows.iterator();
+            FlightExportRow current = null;
+            List<String> airlineCodes = new ArrayList<>();
+            
+            while (iterator.hasNext()) {
+                FlightExportRow row = iterator.next();
+                if (current != null && !current.id().equals(row.id())) {
+                    write(format, writer, current, airlineCodes);
+                    count++;
+                    airlineCodes = new ArrayList<>();
+                }
+                current = row;
+                if (row.airlineCode() != null) {
+                    airlineCodes.add(row.airlineCode());
+                }
+            }
+            if (current != null) {
+                write(format, writer, current, airlineCodes);
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        
+        writer.flush();
+        return count;
+    }
+    
+    private void write(Format format, Writer writer, FlightExportRow row, List<String> airlineCodes) throws IOException {
+        airlineCodes.sort(null);
+        if (format == Format.NDJSON) {
+            LegSummary leg = new LegSummary(row.id(), row.flightNumber(), row.sourceAirportCode(),
+                    row.destinationAirportCode(), row.departureTime(), row.arrivalTime(),
+                    Duration.between(row.departureTime(), row.arrivalTime()).toMinutes(), airlineCodes);
+            writer.write(objectMapper.writeValueAsString(leg));
+        } else {
+            writer.write(csv(row.id()));
+            writer.write(',');
+            writer.write(csv(row.flightNumber()));
+            writer.write(',');
+            writer.write(csv(row.sourceAirportCode()));
+            writer.write(',');
+            writer.write(csv(row.destinationAirportCode()));
+            writer.write(',');
+            writer.write(row.departureTime().toString());
+            writer.write(',');
+            writer.write(row.arrivalTime().toString());
+            writer.write(',');
+            writer.write(csv(String.join(" ", airlineCodes)));
+        }
+        writer.write('\n');
+    }
+    
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
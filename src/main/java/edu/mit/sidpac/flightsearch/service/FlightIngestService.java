@@ -0,0 +1,277 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.dto.IngestReport;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.repository.AirlineRepository;
+import edu.mit.sidpac.flightsearch.repository.AirportRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk flight loader for season schedules.
+ * Reference codes are resolved once up front, permissions are checked once per airline, and valid
+ * rows are written with JDBC batches, one transaction per chunk. Bad rows are reported, not fatal.
+ */
+@Service
+public class FlightIngestService {
+    
+    private static final String INSERT_FLIGHT =
+            "INSERT INTO flights (id, flight_number, source_airport_id, destination_airport_id, " +
+            "departure_time, arrival_time, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_FLIGHT_AIRLINE =
+            "INSERT INTO flight_airlines (id, flight_id, airline_id, created_at) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private AirportRepository airportRepository;
+    
+    @Autowired
+    private AirlineRepository airlineRepository;
+    
+    @Autowired
+    private PermissionService permissionService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${flight-search.ingest.chunk-size:500}")
+    private int chunkSize = 500;
+    
+    @Value("${flight-search.ingest.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+    
+    public enum Format {
+        NDJSON, CSV
+    }
+    
+    private record FlightRow(int line, String flightNumber, String sourceAirportId, String destinationAirportId,
+                             LocalDateTime departureTime, LocalDateTime arrivalTime, List<String> airlineIds) {
+    }
+    
+    public IngestReport ingest(User user, Format format, InputStream body) throws IOException {
+        Map<String, String> airportIds = new HashMap<>();
+        for (Airport airport : airportRepository.findAll()) {
+            airportIds.put(airport.getCode(), airport.getId());
+        }
+        Map<String, String> airlineIds = new HashMap<>();
+        for (Airline airline : airlineRepository.findAll()) {
+            airlineIds.put(airline.getCode(), airline.getId());
+        }
+        Map<String, Boolean> permittedAirlines = new HashMap<>();
+        
+        IngestReport report = new IngestReport();
+        List<FlightRow> chunk = new ArrayList<>(chunkSize);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String[] header = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvLines.split(line).toArray(new String[0]);
+                continue;
+            }
+            report.recordReceived();
+            
+            try {
+                Map<String, Object> fields = format == Format.CSV ? csvFields(header, line) : jsonFields(line);
+                chunk.add(toRow(user, lineNumber, fields, now, airportIds, airlineIds, permittedAirlines));
+            } catch (IllegalArgumentException e) {
+                report.recordRejected(lineNumber, e.getMessage(), maxReportedErrors);
+                continue;
+            }
+            
+            if (chunk.size() >= chunkSize) {
+                flush(transaction, chunk, now, report);
+            }
+        }
+        flush(transaction, chunk, now, report);
+        return report;
+    }
+    
+    private FlightRow toRow(User user, int line, Map<String, Object> fields, LocalDateTime now,
+                            Map<String, String> airportIds, Map<String, String> airlineIds,
+                            Map<String, Boolean> permittedAirlines) {
+        String flightNumber = requireText(fields, "flightNumber");
+        if (flightNumber.length() > 10) {
+            throw new IllegalArgumentException("Flight number is longer than 10 characters");
+        }
+        
+        String sourceCode = requireText(fields, "sourceAirportCode");
+        String sourceAirportId = airportIds.get(sourceCode);
+        if (sourceAirportId == null) {
+            throw new IllegalArgumentException("Source airport not found: " + sourceCode);
+        }
+        String destinationCode = requireText(fields, "destinationAirportCode");
+        String destinationAirportId = airportIds.get(destinationCode);
+        if (destinationAirportId == null) {
+            throw new IllegalArgumentException("Destination airport not found: " + destinationCode);
+        }
+        
+        LocalDateTime departureTime = requireTime(fields, "departureTime");
+        LocalDateTime arrivalTime = requireTime(fields, "arrivalTime");
+        if (departureTime.isBefore(now)) {
+            throw new IllegalArgumentException("Departure time cannot be in the past");
+        }
+        if (arrivalTime.isBefore(departureTime)) {
+            throw new IllegalArgumentException("Arrival time cannot be before departure time");
+        }
+        
+        @SuppressWarnings("unchecked")
+        Set<String> airlineCodes = (Set<String>) fields.get("airlineCodes");
+        if (airlineCodes == null || airlineCodes.isEmpty()) {
+            throw new IllegalArgumentException("Airline codes cannot be empty");
+        }
+        List<String> ids = new ArrayList<>(airlineCodes.size());
+        for (String airlineCode : airlineCodes) {
+            String airlineId = airlineIds.get(airlineCode);
+            if (airlineId == null) {
+                throw new IllegalArgumentException("Airline not found: " + airlineCode);
+            }
+            if (!permittedAirlines.computeIfAbsent(airlineCode, code -> permissionService.canManageFlights(user, code))) {
+                throw new IllegalArgumentException("Insufficient permissions to manage airline: " + airlineCode);
+            }
+            ids.add(airlineId);
+        }
+        
+        return new FlightRow(line, flightNumber, sourceAirportId, destinationAirportId, departureTime, arrivalTime, ids);
+    }
+    
+    private void flush(TransactionTemplate transaction, List<FlightRow> chunk, LocalDateTime now, IngestReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> flights = new ArrayList<>(chunk.size());
+        List<Object[]> flightAirlines = new ArrayList<>(chunk.size());
+        Timestamp createdAt = Timestamp.valueOf(now);
+        for (FlightRow row : chunk) {
+            String flightId = UUID.randomUUID().toString();
+            flights.add(new Object[] {
+                    flightId, row.flightNumber(), row.sourceAirportId(), row.destinationAirportId(),
+                    Timestamp.valueOf(row.departureTime()), Timestamp.valueOf(row.arrivalTime()), createdAt, createdAt});
+            for (String airlineId : row.airlineIds()) {
+                flightAirlines.add(new Object[] {UUID.randomUUID().toString(), flightId, airlineId, createdAt});
+            }
+        }
+        
+        try {
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_FLIGHT, flights);
+                jdbcTemplate.batchUpdate(INSERT_FLIGHT_AIRLINE, flightAirlines);
+            });
+            report.recordInserted(chunk.size());
+        } catch (DataAccessException e) {
+            // The chunk rolled back as a unit; earlier chunks stay committed
+            String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+            for (FlightRow row : chunk) {
+                report.recordRejected(row.line(), message, maxReportedErrors);
+            }
+        }
+        chunk.clear();
+    }
+    
+    private Map<String, Object> jsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        
+        Map<String, Object> fields = new HashMap<>();
+        node.fields().forEachRemaining(entry -> {
+            if (entry.getValue().isArray()) {
+                Set<String> values = new LinkedHashSet<>();
+                entry.getValue().forEach(value -> values.add(value.asText().trim()));
+                fields.put(entry.getKey(), values);
+            } else if (!entry.getValue().isNull()) {
+                fields.put(entry.getKey(), entry.getValue().asText());
+            }
+        });
+        return fields;
+    }
+    
+    private Map<String, Object> csvFields(String[] header, String line) {
+        List<String> values = CsvLines.split(line);
+        if (values.size() != header.length) {
+            throw new IllegalArgumentException("Expected " + header.length + " columns but found " + values.size());
+        }
+        
+        Map<String, Object> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).trim();
+            if ("airlineCodes".equals(header[i])) {
+                // Same layout as the schedule export: codes separated by spaces
+                Set<String> codes = new LinkedHashSet<>();
+                for (String code : value.split("[\\s;]+")) {
+                    if (!code.isEmpty()) {
+                        codes.add(code);
+                    }
+                }
+                fields.put(header[i], codes);
+            } else if (!value.isEmpty()) {
+                fields.put(header[i], value);
+            }
+        }
+        return fields;
+    }
+    
+    private String requireText(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof String text) || text.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return text.trim();
+    }
+    
+    private LocalDateTime requireTime(Map<String, Object> fields, String name) {
+        String value = requireText(fields, name);
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+}
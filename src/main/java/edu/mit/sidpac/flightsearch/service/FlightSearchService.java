@@ -1,22 +1,34 @@
 package edu.mit.sidpac.flightsearch.service;
 
+import edu.mit.sidpac.flightsearch.dto.CacheRegionStats;
+import edu.mit.sidpac.flightsearch.dto.SearchPhase;
+import edu.mit.sidpac.flightsearch.dto.SearchProfile;
 import edu.mit.sidpac.flightsearch.dto.SearchRequest;
 import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import edu.mit.sidpac.flightsearch.dto.SlowSearch;
 import edu.mit.sidpac.flightsearch.dto.Trip;
 import edu.mit.sidpac.flightsearch.entity.Airline;
 import edu.mit.sidpac.flightsearch.entity.Fare;
 import edu.mit.sidpac.flightsearch.entity.FareRestriction;
 import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
 import edu.mit.sidpac.flightsearch.entity.RestrictionType;
 import edu.mit.sidpac.flightsearch.repository.FareRepository;
 import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,79 +40,303 @@ public class FlightSearchService {
     @Autowired
     private FareRepository fareRepository;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+    
+    @Autowired
+    private SlowSearchRecorder slowSearchRecorder;
+    
+    @Value("${flight-search.search.default-timeout-ms:2000}")
+    private long defaultTimeoutMs = 2000;
+    
+    @Value("${flight-search.search.max-timeout-ms:10000}")
+    private long maxTimeoutMs = 10000;
+    
+    // Recorded by hand rather than through an aspect: the phases are not method boundaries
+    private Timer loadScheduleTimer;
+    private Timer directTimer;
+    private Timer connectingTimer;
+    private Timer fareEvaluationTimer;
+    private Timer sortTimer;
+    private Timer completeSearchTimer;
+    private Timer partialSearchTimer;
+    private Counter candidateCounter;
+    private Counter fareCounter;
+    private Counter resultCounter;
+    private DistributionSummary candidatesPerSearch;
+    private DistributionSummary resultsPerSearch;
+    
+    @PostConstruct
+    void registerMetrics() {
+        loadScheduleTimer = phaseTimer("load_schedule");
+        directTimer = phaseTimer("direct");
+        connectingTimer = phaseTimer("connecting");
+        fareEvaluationTimer = phaseTimer("fare_evaluation");
+        sortTimer = phaseTimer("sort");
+        completeSearchTimer = searchTimer("complete");
+        partialSearchTimer = searchTimer("partial");
+        candidateCounter = Counter.builder("flight.search.candidates")
+                .description("Flight and airline combinations priced as candidate trips")
+                .register(meterRegistry);
+        fareCounter = Counter.builder("flight.search.fares_evaluated")
+                .description("Fares checked against candidate trips")
+                .register(meterRegistry);
+        resultCounter = Counter.builder("flight.search.results")
+                .description("Trips returned by planning searches")
+                .register(meterRegistry);
+        candidatesPerSearch = DistributionSummary.builder("flight.search.candidates_per_search")
+                .description("Candidate trips priced by a single planning search")
+                .register(meterRegistry);
+        resultsPerSearch = DistributionSummary.builder("flight.search.results_per_search")
+                .description("Trips returned by a single planning search")
+                .register(meterRegistry);
+    }
+    
+    private Timer phaseTimer(String phase) {
+        // direct and connecting include the fare evaluation done inside them; fare_evaluation is that share alone
+        return Timer.builder("flight.search.phase")
+                .description("Time spent in each planning search phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+    
+    private Timer searchTimer(String outcome) {
+        return Timer.builder("flight.search.duration")
+                .description("Planning search time, excluding request handling")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     public SearchResponse searchFlights(SearchRequest request) {
-        String sourceCode = request.getSourceAirport().toUpperCase();
-        String destinationCode = request.getDestinationAirport().toUpperCase();
+        return searchFlights(request, SearchDeadline.afterMillis(resolveTimeoutMs(request.getTimeoutMs())));
+    }
+    
+    /**
+     * Runs the search against the given deadline instead of one built from the request's timeoutMs.
+     */
+    public SearchResponse searchFlights(SearchRequest request, SearchDeadline deadline) {
+        String sourceCode = airportCode(request.getSourceAirport());
+        String destinationCode = airportCode(request.getDestinationAirport());
         LocalDateTime departureTime = request.getDepartureTime();
+        long timeoutMs = deadline.getTimeoutMs();
+        
+        List<Trip> allTrips = new ArrayList<>();
+        SearchPhase phase = SearchPhase.LOAD_SCHEDULE;
+        SearchTally tally = new SearchTally();
+        SearchProfile profile = request.isExplain() ? new SearchProfile() : null;
+        tally.profile = profile;
+        Map<String, CacheRegionStats> cacheBefore = profile != null ? referenceCacheStats() : null;
+        long searchStart = System.nanoTime();
         
         // Find all possible flights
         List<Flight> allFlights = flightRepository.findAll();
+        long phaseStart = record(loadScheduleTimer, searchStart, SearchPhase.LOAD_SCHEDULE, tally);
         
         // Find direct flights
-        List<Trip> directTrips = findDirectTrips(allFlights, sourceCode, destinationCode, departureTime);
+        if (!deadline.check()) {
+            phase = SearchPhase.DIRECT;
+            findDirectTrips(allFlights, sourceCode, destinationCode, departureTime, deadline, allTrips, tally);
+            phaseStart = record(directTimer, phaseStart, SearchPhase.DIRECT, tally);
+        }
         
         // Find connecting flights
-        List<Trip> connectingTrips = findConnectingTrips(allFlights, sourceCode, destinationCode, departureTime);
-        
-        // Combine and sort by price
-        List<Trip> allTrips = new ArrayList<>();
-        allTrips.addAll(directTrips);
-        allTrips.addAll(connectingTrips);
+        if (!deadline.check()) {
+            phase = SearchPhase.CONNECTING;
+            findConnectingTrips(allFlights, sourceCode, destinationCode, departureTime, deadline, allTrips, tally);
+            phaseStart = record(connectingTimer, phaseStart, SearchPhase.CONNECTING, tally);
+        }
         
+        // Sort by price; a timed-out search still returns the trips found so far. The deadline is not
+        // consulted again: partial means enumeration was cut short, not that the response was late
         allTrips.sort(Comparator.comparing(Trip::getTotalPrice));
+        tally.sortNanos = record(sortTimer, phaseStart) - phaseStart;
+        
+        SearchResponse response = new SearchResponse(allTrips, request);
+        response.setPartial(deadline.isExpired());
+        response.setPhase(deadline.isExpired() ? phase : SearchPhase.COMPLETE);
         
-        return new SearchResponse(allTrips, request);
+        fareEvaluationTimer.record(tally.fareNanos, TimeUnit.NANOSECONDS);
+        candidateCounter.increment(tally.candidates);
+        fareCounter.increment(tally.faresEvaluated);
+        resultCounter.increment(allTrips.size());
+        candidatesPerSearch.record(tally.candidates);
+        resultsPerSearch.record(allTrips.size());
+        long searchNanos = record(deadline.isExpired() ? partialSearchTimer : completeSearchTimer, searchStart) - searchStart;
+        
+        if (slowSearchRecorder != null && slowSearchRecorder.isSlow(searchNanos)) {
+            slowSearchRecorder.record(new SlowSearch(LocalDateTime.now(), sourceCode, destinationCode, departureTime,
+                    timeoutMs, searchNanos / 1_000_000.0, phaseMillis(tally), allFlights.size(),
+                    tally.directCandidates, tally.firstLegCandidates, tally.secondLegCandidates, tally.candidates,
+                    tally.faresEvaluated, allTrips.size(), response.isPartial(), response.getPhase()));
+        }
+        
+        if (profile != null) {
+            profile.setPhaseMillis(phaseMillis(tally));
+            profile.recordTotal(searchNanos);
+            profile.recordFlightsLoaded(allFlights.size());
+            profile.recordCandidates(tally.directCandidates, tally.firstLegCandidates, tally.secondLegCandidates);
+            if (deadline.isExpired()) {
+                profile.recordPruned(SearchProfile.DEADLINE);
+            }
+            if (cacheBefore != null) {
+                Map<String, CacheRegionStats> cacheDelta = new LinkedHashMap<>();
+                referenceCacheStats().forEach((region, stats) -> cacheDelta.put(region, stats.since(cacheBefore.get(region))));
+                profile.setReferenceCache(cacheDelta);
+            }
+            response.setProfile(profile);
+        }
+        return response;
     }
     
-    private List<Trip> findDirectTrips(List<Flight> allFlights, String sourceCode, String destinationCode, LocalDateTime departureTime) {
-        return allFlights.stream()
-                .filter(flight -> flight.getSourceAirport().getCode().equals(sourceCode) &&
-                                flight.getDestinationAirport().getCode().equals(destinationCode) &&
-                                (departureTime == null || flight.getDepartureTime().isAfter(departureTime.minusHours(1))))
-                .flatMap(flight -> flight.getFlightAirlines().stream()
-                        .map(flightAirline -> createTrip(flight, flightAirline.getAirline())))
-                .collect(Collectors.toList());
+    /**
+     * Time per phase that ran, plus fare_evaluation, the share of direct and connecting spent pricing.
+     */
+    private Map<String, Double> phaseMillis(SearchTally tally) {
+        Map<String, Double> phaseMillis = new LinkedHashMap<>();
+        for (SearchPhase phase : SearchPhase.values()) {
+            if (phase != SearchPhase.COMPLETE && tally.phaseNanos[phase.ordinal()] > 0) {
+                phaseMillis.put(phase.name().toLowerCase(Locale.ROOT), tally.phaseNanos[phase.ordinal()] / 1_000_000.0);
+            }
+        }
+        phaseMillis.put("sort", tally.sortNanos / 1_000_000.0);
+        phaseMillis.put("fare_evaluation", tally.fareNanos / 1_000_000.0);
+        return phaseMillis;
     }
     
-    private List<Trip> findConnectingTrips(List<Flight> allFlights, String sourceCode, String destinationCode, LocalDateTime departureTime) {
-        List<Trip> connectingTrips = new ArrayList<>();
-        
+    private Map<String, CacheRegionStats> referenceCacheStats() {
+        // Not wired when the service is built by hand, as in the benchmarks; the same goes for slowSearchRecorder
+        return referenceCacheService != null ? referenceCacheService.getStats() : null;
+    }
+    
+    /**
+     * Airport codes are matched upper-cased and otherwise as given; SearchCoalescer keys on the same form.
+     */
+    static String airportCode(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+    
+    private long resolveTimeoutMs(Long requestedTimeoutMs) {
+        if (requestedTimeoutMs == null || requestedTimeoutMs <= 0) {
+            return defaultTimeoutMs;
+        }
+        return Math.min(requestedTimeoutMs, maxTimeoutMs);
+    }
+    
+    /**
+     * Records the time since startNanos and returns now, the start of the next phase.
+     */
+    private long record(Timer timer, long startNanos) {
+        long now = System.nanoTime();
+        timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+    
+    private long record(Timer timer, long startNanos, SearchPhase phase, SearchTally tally) {
+        long now = record(timer, startNanos);
+        tally.phaseNanos[phase.ordinal()] = now - startNanos;
+        return now;
+    }
+    
+    /**
+     * Departure filter shared by direct flights and first legs: no earlier than an hour before the requested time.
+     */
+    private boolean inDepartureWindow(Flight flight, LocalDateTime departureTime, SearchTally tally) {
+        if (departureTime == null || flight.getDepartureTime().isAfter(departureTime.minusHours(1))) {
+            return true;
+        }
+        if (tally.profile != null) {
+            tally.profile.recordPruned(SearchProfile.DEPARTURE_BEFORE_WINDOW);
+        }
+        return false;
+    }
+    
+    private boolean connects(Flight firstLeg, Flight secondLeg, SearchTally tally) {
+        if (secondLeg.getDepartureTime().isAfter(firstLeg.getArrivalTime())) {
+            return true;
+        }
+        if (tally.profile != null) {
+            tally.profile.recordPruned(SearchProfile.CONNECTION_BEFORE_ARRIVAL);
+        }
+        return false;
+    }
+    
+    private void findDirectTrips(List<Flight> allFlights, String sourceCode, String destinationCode,
+                                 LocalDateTime departureTime, SearchDeadline deadline, List<Trip> trips,
+                                 SearchTally tally) {
+        for (Flight flight : allFlights) {
+            if (deadline.check()) {
+                return;
+            }
+            
+            if (!flight.getSourceAirport().getCode().equals(sourceCode) ||
+                !flight.getDestinationAirport().getCode().equals(destinationCode) ||
+                !inDepartureWindow(flight, departureTime, tally)) {
+                continue;
+            }
+            tally.directCandidates++;
+            
+            for (FlightAirline flightAirline : flight.getFlightAirlines()) {
+                Trip trip = createTrip(flight, flightAirline.getAirline(), tally);
+                if (trip != null) {
+                    trips.add(trip);
+                }
+            }
+        }
+    }
+    
+    private void findConnectingTrips(List<Flight> allFlights, String sourceCode, String destinationCode,
+                                     LocalDateTime departureTime, SearchDeadline deadline, List<Trip> trips,
+                                     SearchTally tally) {
         // Find first leg flights
         List<Flight> firstLegFlights = allFlights.stream()
                 .filter(flight -> flight.getSourceAirport().getCode().equals(sourceCode) &&
-                                (departureTime == null || flight.getDepartureTime().isAfter(departureTime.minusHours(1))))
+                                inDepartureWindow(flight, departureTime, tally))
                 .collect(Collectors.toList());
+        tally.firstLegCandidates = firstLegFlights.size();
         
         for (Flight firstLeg : firstLegFlights) {
+            if (deadline.check()) {
+                return;
+            }
+            
             // Find second leg flights
             List<Flight> secondLegFlights = allFlights.stream()
                     .filter(flight -> flight.getSourceAirport().getCode().equals(firstLeg.getDestinationAirport().getCode()) &&
                                     flight.getDestinationAirport().getCode().equals(destinationCode) &&
-                                    flight.getDepartureTime().isAfter(firstLeg.getArrivalTime()))
+                                    connects(firstLeg, flight, tally))
                     .collect(Collectors.toList());
+            tally.secondLegCandidates += secondLegFlights.size();
             
             for (Flight secondLeg : secondLegFlights) {
+                if (deadline.check()) {
+                    return;
+                }
+                
                 // Find common airlines
                 Set<Airline> commonAirlines = firstLeg.getFlightAirlines().stream()
                         .map(flightAirline -> flightAirline.getAirline())
                         .filter(airline -> secondLeg.getFlightAirlines().stream()
                                 .anyMatch(flightAirline -> flightAirline.getAirline().equals(airline)))
                         .collect(Collectors.toSet());
+                if (commonAirlines.isEmpty() && tally.profile != null) {
+                    tally.profile.recordPruned(SearchProfile.NO_COMMON_AIRLINE);
+                }
                 
                 for (Airline airline : commonAirlines) {
-                    Trip trip = createConnectingTrip(firstLeg, secondLeg, airline);
+                    Trip trip = createConnectingTrip(firstLeg, secondLeg, airline, tally);
                     if (trip != null) {
-                        connectingTrips.add(trip);
+                        trips.add(trip);
                     }
                 }
             }
         }
-        
-        return connectingTrips;
     }
     
-    private Trip createTrip(Flight flight, Airline airline) {
-        BigDecimal price = calculateFarePrice(flight, airline, 1);
+    private Trip createTrip(Flight flight, Airline airline, SearchTally tally) {
+        BigDecimal price = calculateFarePrice(flight, airline, 1, tally);
         if (price == null) {
             return null;
         }
@@ -114,8 +350,8 @@ public class FlightSearchService {
         return trip;
     }
     
-    private Trip createConnectingTrip(Flight firstLeg, Flight secondLeg, Airline airline) {
-        BigDecimal price = calculateFarePrice(firstLeg, airline, 2);
+    private Trip createConnectingTrip(Flight firstLeg, Flight secondLeg, Airline airline, SearchTally tally) {
+        BigDecimal price = calculateFarePrice(firstLeg, airline, 2, tally);
         if (price == null) {
             return null;
         }
@@ -130,6 +366,11 @@ public class FlightSearchService {
     }
     
     private BigDecimal calculateFarePrice(Flight flight, Airline airline, int legCount) {
+        return calculateFarePrice(flight, airline, legCount, new SearchTally());
+    }
+    
+    private BigDecimal calculateFarePrice(Flight flight, Airline airline, int legCount, SearchTally tally) {
+        long start = System.nanoTime();
         List<Fare> fares = fareRepository.findFaresByAirlineCode(airline.getCode());
         
         BigDecimal bestPrice = null;
@@ -142,6 +383,12 @@ public class FlightSearchService {
             }
         }
         
+        tally.candidates++;
+        tally.faresEvaluated += fares.size();
+        tally.fareNanos += System.nanoTime() - start;
+        if (tally.profile != null) {
+            tally.profile.recordFareLookup(airline.getCode(), fares.size(), bestPrice != null);
+        }
         return bestPrice;
     }
     
@@ -180,4 +427,19 @@ public class FlightSearchService {
                 return false;
         }
     }
+    
+    /**
+     * Per-search counts, published to the meters once the search finishes.
+     */
+    private static final class SearchTally {
+        int candidates;
+        int faresEvaluated;
+        long fareNanos;
+        int directCandidates;
+        int firstLegCandidates;
+        int secondLegCandidates;
+        final long[] phaseNanos = new long[SearchPhase.values().length];
+        long sortNanos;
+        SearchProfile profile; // explain searches only; null keeps the search loops free of profiling work
+    }
 }
@@ -1,5 +1,7 @@
 package edu.mit.sidpac.flightsearch.service;
 
+import edu.mit.sidpac.flightsearch.dto.FlightCursor;
+import edu.mit.sidpac.flightsearch.dto.FlightPage;
 import edu.mit.sidpac.flightsearch.entity.Airline;
 import edu.mit.sidpac.flightsearch.entity.Airport;
 import edu.mit.sidpac.flightsearch.entity.Flight;
@@ -9,13 +11,18 @@ import edu.mit.sidpac.flightsearch.exception.InsufficientPermissionsException;
 import edu.mit.sidpac.flightsearch.repository.AirlineRepository;
 import edu.mit.sidpac.flightsearch.repository.AirportRepository;
 import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -36,12 +43,58 @@ public class FlightService {
     @Autowired
     private PermissionService permissionService;
     
+    @Value("${flight-search.flights.default-page-size:100}")
+    private int defaultPageSize = 100;
+    
+    @Value("${flight-search.flights.max-page-size:1000}")
+    private int maxPageSize = 1000;
+    
     public List<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
     
+    /**
+     * The whole schedule in (departureTime, id) order, for callers that do not page.
+     */
+    public List<Flight> getAllFlights(boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return flightRepository.findAll(Sort.by(direction, "departureTime", "id"));
+    }
+    
     public Page<Flight> getAllFlights(Pageable pageable) {
-        return flightRepository.findAll(pageable);
+        Page<Flight> page = flightRepository.findAll(pageable);
+        page.forEach(flight -> Hibernate.initialize(flight.getFlightAirlines()));
+        return page;
+    }
+    
+    /**
+     * Keyset page of flights ordered by (departureTime, id).
+     * Each page seeks directly past the cursor, so cost stays constant however deep the listing goes.
+     */
+    @Transactional(readOnly = true)
+    public FlightPage getFlightsPage(String cursor, Integer size, boolean descending) {
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        FlightCursor after = cursor != null && !cursor.isBlank() ? FlightCursor.decode(cursor) : null;
+        
+        // Fetch one extra row to learn whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<Flight> flights;
+        if (after == null) {
+            flights = descending ? flightRepository.findFirstPageDescending(limit)
+                                 : flightRepository.findFirstPageAscending(limit);
+        } else {
+            flights = descending ? flightRepository.findPageBefore(after.getDepartureTime(), after.getId(), limit)
+                                 : flightRepository.findPageAfter(after.getDepartureTime(), after.getId(), limit);
+        }
+        
+        // Codeshares are batch-loaded (see @BatchSize on Flight) rather than joined, so the Limit stays in SQL
+        flights.forEach(flight -> Hibernate.initialize(flight.getFlightAirlines()));
+        
+        if (flights.size() <= pageSize) {
+            return new FlightPage(flights, null);
+        }
+        List<Flight> page = flights.subList(0, pageSize);
+        return new FlightPage(page, FlightCursor.of(page.get(pageSize - 1)).encode());
     }
     
     public Optional<Flight> getFlightById(String id) {
@@ -73,21 +126,21 @@ public class FlightService {
                 .orElseThrow(() -> new RuntimeException("Destination airport not found: " + destinationAirportCode));
         
         // Validate airline codes and permissions before creating the flight
+        List<Airline> airlines = new ArrayList<>(airlineCodes.size());
         for (String airlineCode : airlineCodes) {
             if (!permissionService.canManageFlights(user, airlineCode)) {
                 throw new InsufficientPermissionsException("Insufficient permissions to manage airline: " + airlineCode);
             }
             
-            Airline airline = airlineRepository.findByCode(airlineCode)
-                    .orElseThrow(() -> new RuntimeException("Airline not found: " + airlineCode));
+            airlines.add(airlineRepository.findByCode(airlineCode)
+                    .orElseThrow(() -> new RuntimeException("Airline not found: " + airlineCode)));
         }
         
         Flight flight = new Flight(flightNumber, sourceAirport, destinationAirport, departureTime, arrivalTime);
         flight = flightRepository.save(flight);
         
         // Add airline codeshares (validation already done above)
-        for (String airlineCode : airlineCodes) {
-            Airline airline = airlineRepository.findByCode(airlineCode).orElseThrow();
+        for (Airline airline : airlines) {
             FlightAirline flightAirline = new FlightAirline(flight, airline);
             flight.getFlightAirlines().add(flightAirline);
         }
@@ -0,0 +1,88 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import edu.mit.sidpac.flightsearch.dto.CacheRegionStats;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics and eviction for the airport/airline second-level cache.
+ * Writes made through Hibernate invalidate the regions on their own; eviction here is for
+ * reference data changed outside the application, such as a re-run of the init script.
+ */
+@Service
+public class ReferenceCacheService {
+    
+    public static final String AIRPORTS_REGION = "airports";
+    public static final String AIRLINES_REGION = "airlines";
+    public static final String QUERY_REGION = "query";
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @PostConstruct
+    void registerMetrics() {
+        for (String region : new String[] {AIRPORTS_REGION, AIRLINES_REGION, QUERY_REGION}) {
+            FunctionCounter.builder("flight.search.reference_cache.requests", this, service -> service.stats(region).hits())
+                    .description("Reference data second-level cache lookups")
+                    .tags("region", region, "result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("flight.search.reference_cache.requests", this, service -> service.stats(region).misses())
+                    .description("Reference data second-level cache lookups")
+                    .tags("region", region, "result", "miss")
+                    .register(meterRegistry);
+            Gauge.builder("flight.search.reference_cache.hit_ratio", this, service -> service.stats(region).hitRatio())
+                    .description("Share of reference data lookups served from the second-level cache")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+    
+    public Map<String, CacheRegionStats> getStats() {
+        Map<String, CacheRegionStats> stats = new LinkedHashMap<>();
+        stats.put(AIRPORTS_REGION, stats(AIRPORTS_REGION));
+        stats.put(AIRLINES_REGION, stats(AIRLINES_REGION));
+        stats.put(QUERY_REGION, stats(QUERY_REGION));
+        return stats;
+    }
+    
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(Airport.class);
+        entityManagerFactory.getCache().evict(Airline.class);
+        sessionFactory().getCache().evictQueryRegions();
+    }
+    
+    private CacheRegionStats stats(String region) {
+        Statistics statistics = sessionFactory().getStatistics();
+        if (QUERY_REGION.equals(region)) {
+            return CacheRegionStats.of(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                    statistics.getQueryCachePutCount());
+        }
+        
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        if (regionStatistics == null) {
+            return CacheRegionStats.of(0, 0, 0);
+        }
+        return CacheRegionStats.of(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                regionStatistics.getPutCount());
+    }
+    
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,153 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, size-rotated NDJSON log written by a single background thread.
+ * Records are handed over through a bounded queue, so callers never wait on disk; when the writer
+ * falls behind, records are dropped and reported instead. Files are named
+ * &lt;name&gt;-&lt;epoch millis&gt;-&lt;sequence&gt;.ndjson and the oldest are deleted once there are
+ * more than {@code maxFiles}.
+ */
+public class RotatingNdjsonLog {
+    
+    static final String FILE_SUFFIX = ".ndjson";
+    
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final String name;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Runnable onWritten;
+    private final Runnable onDropped;
+    private final ThreadPoolExecutor writer;
+    
+    // Owned by the writer thread
+    private OutputStream out;
+    private long fileBytes;
+    private int sequence;
+    
+    /**
+     * @param onWritten run on the writer thread after each record reaches the file
+     * @param onDropped run for each record that was rejected by a full queue or failed to write
+     */
+    public RotatingNdjsonLog(ObjectMapper objectMapper, Path directory, String name, long maxFileMb, int maxFiles,
+                             int queueCapacity, Runnable onWritten, Runnable onDropped) {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.name = name;
+        this.maxFileBytes = maxFileMb * 1024 * 1024;
+        this.maxFiles = maxFiles;
+        this.onWritten = onWritten;
+        this.onDropped = onDropped;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, name + "-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    public void append(Object record) {
+        try {
+            writer.execute(() -> write(record));
+        } catch (RejectedExecutionException e) {
+            onDropped.run();
+        }
+    }
+    
+    /**
+     * Waits until every record appended so far has been written.
+     */
+    public void drain() throws InterruptedException {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    /**
+     * Writes what is queued, closes the current file and stops the writer thread.
+     */
+    public void shutdown() throws InterruptedException {
+        writer.execute(this::close);
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    public static boolean isLogFile(Path file, String name) {
+        String fileName = file.getFileName().toString();
+        return fileName.startsWith(name + "-") && fileName.endsWith(FILE_SUFFIX);
+    }
+    
+    private void write(Object record) {
+        try {
+            byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+            if (out == null || fileBytes + line.length > maxFileBytes) {
+                rotate();
+            }
+            out.write(line);
+            out.flush();
+            fileBytes += line.length;
+            onWritten.run();
+        } catch (JsonProcessingException e) {
+            onDropped.run();
+        } catch (IOException e) {
+            System.err.println("Write to " + name + " log failed: " + e.getMessage());
+            onDropped.run();
+            close();
+        }
+    }
+    
+    private void rotate() throws IOException {
+        close();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("%s-%013d-%04d%s", name, System.currentTimeMillis(),
+                sequence++ % 10000, FILE_SUFFIX));
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.APPEND);
+        fileBytes = 0;
+        
+        // Names sort by creation time, so the oldest files come first
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> isLogFile(path, name)).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+    
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Close of " + name + " log failed: " + e.getMessage());
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,105 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
+import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight layer in front of FlightSearchService.
+ * Concurrent identical searches share one in-flight computation; the first caller
+ * runs the search on its own thread and every other caller waits on the same future.
+ * Every waiter gets the same SearchResponse instance, whose searchCriteria is the first caller's
+ * request, so callers must treat it as read-only.
+ */
+@Service
+public class SearchCoalescer {
+    
+    @Autowired
+    private FlightSearchService flightSearchService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final ConcurrentHashMap<SearchKey, CompletableFuture<SearchResponse>> inFlight = new ConcurrentHashMap<>();
+    
+    private Counter executedSearches;
+    private Counter coalescedSearches;
+    
+    @PostConstruct
+    void registerMetrics() {
+        executedSearches = Counter.builder("flight.search.coalescing")
+                .description("Planning searches by single-flight outcome")
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        coalescedSearches = Counter.builder("flight.search.coalescing")
+                .description("Planning searches by single-flight outcome")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("flight.search.in_flight", inFlight, ConcurrentHashMap::size)
+                .description("Distinct planning searches currently executing")
+                .register(meterRegistry);
+    }
+    
+    public SearchResponse searchFlights(SearchRequest request) {
+        SearchKey key = SearchKey.of(request);
+        CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+        CompletableFuture<SearchResponse> existing = inFlight.putIfAbsent(key, future);
+        
+        if (existing != null) {
+            // Another thread is already computing this search; wait for its result
+            coalescedSearches.increment();
+            return await(existing);
+        }
+        
+        executedSearches.increment();
+        try {
+            SearchResponse response = flightSearchService.searchFlights(request);
+            future.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Errors too, or waiters already blocked on the future would never be released
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+    
+    private SearchResponse await(CompletableFuture<SearchResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private record SearchKey(String sourceAirport, String destinationAirport,
+                             LocalDateTime departureTime, Long timeoutMs, boolean explain) {
+        
+        static SearchKey of(SearchRequest request) {
+            return new SearchKey(
+                    FlightSearchService.airportCode(request.getSourceAirport()),
+                    FlightSearchService.airportCode(request.getDestinationAirport()),
+                    request.getDepartureTime(),
+                    request.getTimeoutMs(),
+                    request.isExplain()
+            );
+        }
+    }
+}
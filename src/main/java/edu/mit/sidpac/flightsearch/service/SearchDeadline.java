@@ -0,0 +1,52 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Time budget for a single search.
+ * Checked cooperatively by the search loops; once the budget is observed
+ * as exhausted the deadline stays expired so callers can report a partial result.
+ */
+public final class SearchDeadline {
+    
+    private final long timeoutMs;
+    private final LongSupplier nanoClock;
+    private final long deadlineNanos;
+    private boolean expired;
+    
+    private SearchDeadline(long timeoutMs, LongSupplier nanoClock) {
+        this.timeoutMs = timeoutMs;
+        this.nanoClock = nanoClock;
+        this.deadlineNanos = nanoClock.getAsLong() + timeoutMs * 1_000_000L;
+    }
+    
+    public static SearchDeadline afterMillis(long timeoutMs) {
+        return new SearchDeadline(timeoutMs, System::nanoTime);
+    }
+    
+    /**
+     * Deadline read from the given nanosecond clock instead of System.nanoTime, so tests can decide
+     * exactly which check sees the budget run out.
+     */
+    public static SearchDeadline afterMillis(long timeoutMs, LongSupplier nanoClock) {
+        return new SearchDeadline(timeoutMs, nanoClock);
+    }
+    
+    /**
+     * Returns true if the budget has run out, latching the expired state.
+     */
+    public boolean check() {
+        if (!expired && nanoClock.getAsLong() - deadlineNanos >= 0) {
+            expired = true;
+        }
+        return expired;
+    }
+    
+    public boolean isExpired() {
+        return expired;
+    }
+    
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+}
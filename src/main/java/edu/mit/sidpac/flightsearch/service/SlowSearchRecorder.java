@@ -0,0 +1,119 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.dto.SlowSearch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps planning searches that ran over a threshold: the latest in a bounded in-memory ring buffer,
+ * all of them appended to size-rotated NDJSON files. The files are written by a RotatingNdjsonLog so a
+ * slow search does not also wait on disk; when its writer falls behind, lines are dropped and counted.
+ */
+@Service
+public class SlowSearchRecorder {
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${flight-search.slow-search.enabled:true}")
+    private boolean enabled = true;
+    
+    @Value("${flight-search.slow-search.threshold-ms:1000}")
+    private long thresholdMs = 1000;
+    
+    @Value("${flight-search.slow-search.buffer-size:200}")
+    private int bufferSize = 200;
+    
+    // Empty keeps slow searches in memory only
+    @Value("${flight-search.slow-search.directory:./data/slow-searches}")
+    private String directory = "./data/slow-searches";
+    
+    @Value("${flight-search.slow-search.max-file-mb:16}")
+    private long maxFileMb = 16;
+    
+    @Value("${flight-search.slow-search.max-files:5}")
+    private int maxFiles = 5;
+    
+    private final Deque<SlowSearch> buffer = new ArrayDeque<>();
+    private RotatingNdjsonLog log;
+    private Counter recorded;
+    private Counter droppedLines;
+    
+    @PostConstruct
+    void init() {
+        recorded = Counter.builder("flight.search.slow")
+                .description("Planning searches over the slow-search threshold")
+                .register(meterRegistry);
+        droppedLines = Counter.builder("flight.search.slow.dropped_lines")
+                .description("Slow searches kept in memory but not written to the slow-search files")
+                .register(meterRegistry);
+        log = new RotatingNdjsonLog(objectMapper, Path.of(directory), "slow-searches", maxFileMb, maxFiles, 1000,
+                () -> { }, droppedLines::increment);
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        log.shutdown();
+    }
+    
+    public boolean isSlow(long searchNanos) {
+        return enabled && searchNanos >= TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+    
+    public void record(SlowSearch search) {
+        recorded.increment();
+        synchronized (buffer) {
+            buffer.addLast(search);
+            while (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+        }
+        if (!directory.isBlank()) {
+            log.append(search);
+        }
+    }
+    
+    /**
+     * Buffered slow searches, newest first.
+     */
+    public List<SlowSearch> getRecent() {
+        synchronized (buffer) {
+            List<SlowSearch> recent = new ArrayList<>(buffer);
+            Collections.reverse(recent);
+            return recent;
+        }
+    }
+    
+    /**
+     * Empties the in-memory buffer; the files are left alone.
+     */
+    public void clear() {
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Waits until every slow search recorded so far has been written.
+     */
+    void drain() throws InterruptedException {
+        log.drain();
+    }
+}
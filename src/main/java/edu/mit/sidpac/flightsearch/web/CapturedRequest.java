@@ -0,0 +1,13 @@
+package edu.mit.sidpac.flightsearch.web;
+
+/**
+ * One captured API request, written as a line of the traffic capture log.
+ * Headers other than Accept are never recorded, so session ids stay out of the log.
+ *
+ * @param startMicros    wall clock start, microseconds since the epoch
+ * @param durationMicros time spent in the application, from the first filter to the last byte written
+ * @param checksum       CRC32 of the response body, hex encoded
+ */
+public record CapturedRequest(long startMicros, String method, String path, String query, String accept,
+                              int status, long durationMicros, long responseBytes, String checksum) {
+}
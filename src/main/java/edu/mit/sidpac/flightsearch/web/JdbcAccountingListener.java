@@ -0,0 +1,40 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds each JDBC statement or batch Hibernate executes, with its execution time, to the current RequestCost.
+ * Registered for every session through hibernate.session.events.auto, so Hibernate creates one per session.
+ * Statements outside an accounted request, such as scheduled cleanup, are ignored.
+ */
+public class JdbcAccountingListener extends BaseSessionEventListener {
+    
+    private long startNanos;
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startNanos = System.nanoTime();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+    
+    private void record() {
+        RequestCost cost = RequestCost.current();
+        if (cost != null) {
+            cost.recordStatement(System.nanoTime() - startNanos);
+        }
+    }
+}
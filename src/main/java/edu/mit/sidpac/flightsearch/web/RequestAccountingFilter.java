@@ -0,0 +1,154 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU time, allocated bytes and JDBC statements, aggregated per endpoint as
+ * flight.search.request.* meters tagged with method, uri and caller, and optionally sent back in a
+ * Server-Timing header.
+ * Runs just inside traffic capture and ahead of security, so authentication is part of the cost.
+ * The header is added just before the response commits and so covers the work up to the first flushed byte;
+ * the meters are recorded once the request returns. Requests that go asynchronous, such as the schedule
+ * export, produce their body on another thread and are not recorded.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestAccountingFilter extends OncePerRequestFilter {
+    
+    static final String SERVER_TIMING = "Server-Timing";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${flight-search.accounting.enabled:true}")
+    private boolean enabled = true;
+    
+    // The header shows statement counts and timings to any client, so it is for development only
+    @Value("${flight-search.accounting.server-timing:false}")
+    private boolean serverTiming = false;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestCost cost = RequestCost.start();
+        ServerTimingResponse timed = serverTiming ? new ServerTimingResponse(response, cost) : null;
+        try {
+            filterChain.doFilter(request, timed != null ? timed : response);
+        } finally {
+            RequestCost.end();
+        }
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        
+        if (timed != null) {
+            timed.addServerTiming();
+        }
+        record(request, response, cost);
+    }
+    
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestCost cost) {
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri(request, response),
+                // Metrics cannot carry one series per user, so callers are only split by whether they have a session
+                "caller", request.getHeader("X-Session-ID") != null ? "session" : "anonymous");
+        
+        long cpuNanos = cost.getCpuNanos();
+        if (cpuNanos >= 0) {
+            Timer.builder("flight.search.request.cpu")
+                    .description("Thread CPU time per request")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+        long allocatedBytes = cost.getAllocatedBytes();
+        if (allocatedBytes >= 0) {
+            DistributionSummary.builder("flight.search.request.allocated")
+                    .description("Bytes allocated by the request thread")
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(allocatedBytes);
+        }
+        DistributionSummary.builder("flight.search.request.statements")
+                .description("JDBC statements and batches executed per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(cost.getStatements());
+        Timer.builder("flight.search.request.jdbc")
+                .description("Time spent executing JDBC statements per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(cost.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * The matched route, so ids in paths do not each become a series; the same fallbacks as http.server.requests.
+     */
+    static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        int status = response.getStatus();
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status / 100 == 3) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+    
+    /**
+     * Sets Server-Timing on the way out: just before the body commits the response, or after the
+     * chain when nothing has been flushed yet.
+     */
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+        
+        private final RequestCost cost;
+        private boolean added;
+        
+        ServerTimingResponse(HttpServletResponse response, RequestCost cost) {
+            super(response);
+            this.cost = cost;
+        }
+        
+        @Override
+        protected void onResponseCommitted() {
+            addServerTiming();
+        }
+        
+        void addServerTiming() {
+            if (added) {
+                return;
+            }
+            added = true;
+            if (!isCommitted()) {
+                setHeader(SERVER_TIMING, cost.toServerTiming());
+            }
+        }
+    }
+}
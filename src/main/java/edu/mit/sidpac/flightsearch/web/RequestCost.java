@@ -0,0 +1,107 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Resources used by one request on the thread that serves it: CPU time, bytes allocated and JDBC statements.
+ * The current request's cost is bound to the thread by RequestAccountingFilter, so JdbcAccountingListener
+ * can add statements to it without knowing about the request. Work handed to other threads is not included.
+ */
+public final class RequestCost {
+    
+    private static final ThreadLocal<RequestCost> CURRENT = new ThreadLocal<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS =
+            THREADS instanceof com.sun.management.ThreadMXBean allocations
+                    && allocations.isThreadAllocatedMemorySupported() ? allocations : null;
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+    
+    private final long startNanos = System.nanoTime();
+    private final long startCpuNanos = cpuNanos();
+    private final long startAllocatedBytes = allocatedBytes();
+    private int statements;
+    private long jdbcNanos;
+    
+    static RequestCost start() {
+        RequestCost cost = new RequestCost();
+        CURRENT.set(cost);
+        return cost;
+    }
+    
+    static void end() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * The cost being collected on this thread, or null outside an accounted request.
+     */
+    public static RequestCost current() {
+        return CURRENT.get();
+    }
+    
+    public void recordStatement(long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+    }
+    
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+    
+    /**
+     * CPU time used so far, or -1 when the JVM cannot measure it.
+     */
+    public long getCpuNanos() {
+        long now = cpuNanos();
+        return now < 0 || startCpuNanos < 0 ? -1 : now - startCpuNanos;
+    }
+    
+    /**
+     * Bytes allocated so far, or -1 when the JVM cannot measure it.
+     */
+    public long getAllocatedBytes() {
+        long now = allocatedBytes();
+        return now < 0 || startAllocatedBytes < 0 ? -1 : now - startAllocatedBytes;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+    
+    /**
+     * Server-Timing value: total, CPU and JDBC time in milliseconds, statement count and allocated bytes.
+     */
+    public String toServerTiming() {
+        StringBuilder timing = new StringBuilder();
+        timing.append("app;dur=").append(millis(getElapsedNanos()));
+        long cpu = getCpuNanos();
+        if (cpu >= 0) {
+            timing.append(", cpu;dur=").append(millis(cpu));
+        }
+        timing.append(", db;dur=").append(millis(jdbcNanos)).append(";desc=\"").append(statements).append(" statements\"");
+        long allocated = getAllocatedBytes();
+        if (allocated >= 0) {
+            timing.append(", alloc;desc=\"").append(allocated).append(" bytes\"");
+        }
+        return timing.toString();
+    }
+    
+    private static String millis(long nanos) {
+        // One decimal place without going through String.format
+        long tenths = nanos / 100_000;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+    
+    private static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+    
+    private static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
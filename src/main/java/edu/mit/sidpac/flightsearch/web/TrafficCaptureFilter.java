@@ -0,0 +1,166 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Opt-in capture of sampled read traffic on the flight and search API, for offline replay.
+ * Runs ahead of the security chain so recorded durations include authentication and admission.
+ * A sampled response is checksummed as it is written rather than buffered, so capturing an unpaged
+ * schedule listing costs no extra memory. The export endpoint is never captured: it streams the
+ * schedule asynchronously, after this filter has returned.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+    
+    @Autowired
+    private TrafficCaptureLog trafficCaptureLog;
+    
+    @Value("${flight-search.capture.enabled:false}")
+    private boolean enabled = false;
+    
+    @Value("${flight-search.capture.sample-rate:0.1}")
+    private double sampleRate = 0.1;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || !isCapturedPath(request.getRequestURI());
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long startMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        long startNanos = System.nanoTime();
+        ChecksumResponse wrapper = new ChecksumResponse(response);
+        // Requests that end in an exception are not captured; the error response is written elsewhere
+        filterChain.doFilter(request, wrapper);
+        wrapper.flushWriter();
+        
+        trafficCaptureLog.append(new CapturedRequest(
+                startMicros,
+                request.getMethod(),
+                request.getRequestURI(),
+                request.getQueryString(),
+                request.getHeader(HttpHeaders.ACCEPT),
+                wrapper.getStatus(),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos),
+                wrapper.bytes,
+                Long.toHexString(wrapper.crc.getValue())));
+    }
+    
+    static boolean isCapturedPath(String uri) {
+        return uri.startsWith("/api/flights") && !uri.startsWith("/api/flights/export");
+    }
+    
+    /**
+     * Passes the body straight through to the client while counting it into a CRC32.
+     */
+    private static final class ChecksumResponse extends HttpServletResponseWrapper {
+        
+        private final CRC32 crc = new CRC32();
+        private long bytes;
+        private ServletOutputStream body;
+        private PrintWriter writer;
+        
+        ChecksumResponse(HttpServletResponse response) {
+            super(response);
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (body == null) {
+                body = new ChecksumOutputStream(super.getOutputStream());
+            }
+            return body;
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+        
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+        
+        private final class ChecksumOutputStream extends ServletOutputStream {
+            
+            private final ServletOutputStream delegate;
+            
+            ChecksumOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+            
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                crc.update(b);
+                bytes++;
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                crc.update(b, off, len);
+                bytes += len;
+            }
+            
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+            
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+            
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+            
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
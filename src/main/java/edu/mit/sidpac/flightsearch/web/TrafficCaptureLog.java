@@ -0,0 +1,83 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.service.RotatingNdjsonLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Size-rotated NDJSON log of captured requests, written off the request thread by a RotatingNdjsonLog.
+ * When the writer falls behind, records are dropped and counted instead.
+ * Files are named traffic-&lt;epoch millis&gt;-&lt;sequence&gt;.ndjson and the oldest are deleted
+ * once there are more than {@code max-files}.
+ */
+@Component
+public class TrafficCaptureLog {
+    
+    static final String LOG_NAME = "traffic";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${flight-search.capture.directory:./data/capture}")
+    private String directory = "./data/capture";
+    
+    @Value("${flight-search.capture.max-file-mb:64}")
+    private long maxFileMb = 64;
+    
+    @Value("${flight-search.capture.max-files:10}")
+    private int maxFiles = 10;
+    
+    @Value("${flight-search.capture.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+    
+    private RotatingNdjsonLog log;
+    
+    @PostConstruct
+    void init() {
+        Counter written = Counter.builder("flight.search.capture.records")
+                .description("Captured requests by write outcome")
+                .tag("outcome", "written")
+                .register(meterRegistry);
+        Counter dropped = Counter.builder("flight.search.capture.records")
+                .description("Captured requests by write outcome")
+                .tag("outcome", "dropped")
+                .register(meterRegistry);
+        log = new RotatingNdjsonLog(objectMapper, Path.of(directory), LOG_NAME, maxFileMb, maxFiles, queueCapacity,
+                written::increment, dropped::increment);
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        log.shutdown();
+    }
+    
+    public void append(CapturedRequest request) {
+        log.append(request);
+    }
+    
+    /**
+     * Waits until every record appended so far has been written.
+     */
+    void drain() throws InterruptedException {
+        log.drain();
+    }
+    
+    Path getDirectory() {
+        return log.getDirectory();
+    }
+    
+    public static boolean isCaptureFile(Path file) {
+        return RotatingNdjsonLog.isLogFile(file, LOG_NAME);
+    }
+}
@@ -1,5 +1,7 @@
 package edu.mit.sidpac.flightsearch;
 
+import edu.mit.sidpac.flightsearch.dto.SearchPhase;
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
 import edu.mit.sidpac.flightsearch.entity.*;
 import edu.mit.sidpac.flightsearch.repository.*;
 import edu.mit.sidpac.flightsearch.service.*;
@@ -14,6 +16,7 @@ import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
 import org.springframework.context.annotation.Import;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -179,6 +182,72 @@ class FlightSearchEngineApplicationTests {
         assertNotNull(firstTrip.getTotalPrice(), "Trip should have total price");
         assertNotNull(firstTrip.getFlights(), "Trip should have flights");
         assertFalse(firstTrip.getFlights().isEmpty(), "Trip should have at least one flight");
+
+        // Verify a search within budget is reported as complete
+        assertFalse(searchResponse.isPartial(), "Search within budget should not be partial");
+        assertEquals(SearchPhase.COMPLETE, searchResponse.getPhase(), "Search should reach COMPLETE");
+    }
+
+    /**
+     * Deadline on a fake clock that stays at zero until the given read and then jumps far past the budget.
+     * Read 1 is the deadline's own start, read 2 the check before the direct phase.
+     */
+    private static SearchDeadline expiringAtRead(int read, AtomicInteger reads) {
+        return SearchDeadline.afterMillis(1000, () -> reads.incrementAndGet() >= read ? 1_000_000_000_000L : 0L);
+    }
+
+    /**
+     * Test: Flight search with a budget already spent
+     * Verifies that the search stops after loading the schedule and reports it as partial
+     */
+    @Test
+    void testFlightSearchService_ExpiredBeforeDirect() {
+        var searchResponse = flightSearchService.searchFlights(new SearchRequest("BOS", "LAX", null),
+                SearchDeadline.afterMillis(0));
+
+        assertTrue(searchResponse.isPartial(), "Spent budget should give a partial result");
+        assertEquals(SearchPhase.LOAD_SCHEDULE, searchResponse.getPhase(), "Search should stop after loading the schedule");
+        assertEquals(0, searchResponse.getTotalResults(), "No trips should be enumerated");
+    }
+
+    /**
+     * Test: Flight search whose budget runs out in the direct phase
+     * Verifies that the first check inside the direct loop stops the search and reports DIRECT
+     */
+    @Test
+    void testFlightSearchService_ExpiresDuringDirect() {
+        var searchResponse = flightSearchService.searchFlights(new SearchRequest("BOS", "LAX", null),
+                expiringAtRead(3, new AtomicInteger()));
+
+        assertTrue(searchResponse.isPartial(), "Expired search should be partial");
+        assertEquals(SearchPhase.DIRECT, searchResponse.getPhase(), "Search should report the direct phase");
+        assertEquals(searchResponse.getTrips().size(), searchResponse.getTotalResults(), "Total results should match trips returned");
+    }
+
+    /**
+     * Test: Flight search whose budget runs out only after enumeration
+     * Verifies that the deadline is not consulted after the last enumeration check, so the search is
+     * COMPLETE with every trip, while expiry at that last check still cuts the search short
+     */
+    @Test
+    void testFlightSearchService_ExpiresAfterEnumeration() {
+        var searchRequest = new SearchRequest("BOS", "LAX", null);
+        AtomicInteger reads = new AtomicInteger();
+        var complete = flightSearchService.searchFlights(searchRequest, expiringAtRead(Integer.MAX_VALUE, reads));
+        assertFalse(complete.isPartial(), "Search that never expires should not be partial");
+        assertEquals(SearchPhase.COMPLETE, complete.getPhase(), "Search that never expires should be COMPLETE");
+        int enumerationReads = reads.get();
+
+        AtomicInteger lateReads = new AtomicInteger();
+        var late = flightSearchService.searchFlights(searchRequest, expiringAtRead(enumerationReads + 1, lateReads));
+        assertFalse(late.isPartial(), "Budget running out after enumeration should not make the result partial");
+        assertEquals(SearchPhase.COMPLETE, late.getPhase());
+        assertEquals(complete.getTotalResults(), late.getTotalResults(), "Every trip found should be returned");
+        assertEquals(enumerationReads, lateReads.get(), "The deadline should not be checked after enumeration");
+
+        var cut = flightSearchService.searchFlights(searchRequest, expiringAtRead(enumerationReads, new AtomicInteger()));
+        assertTrue(cut.isPartial(), "Expiry at the last enumeration check should give a partial result");
+        assertEquals(SearchPhase.CONNECTING, cut.getPhase(), "Search should report the connecting phase");
     }
 
     /**
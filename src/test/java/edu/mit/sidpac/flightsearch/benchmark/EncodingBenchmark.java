@@ -0,0 +1,110 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
+import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import edu.mit.sidpac.flightsearch.dto.Trip;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON, CBOR and Smile encoding of a planning search response.
+ * Reports encode time per response; payload sizes are printed once per trial.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="EncodingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+    
+    @Param({"10", "100"})
+    public int tripCount;
+    
+    private ObjectMapper jsonMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private SearchResponse response;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jsonMapper = configure(new ObjectMapper());
+        cborMapper = configure(new ObjectMapper(new CBORFactory()));
+        smileMapper = configure(new ObjectMapper(new SmileFactory()));
+        response = buildResponse(tripCount);
+        
+        System.out.printf("%n# Payload size for %d trips: json=%d bytes, cbor=%d bytes, smile=%d bytes%n",
+                tripCount,
+                jsonMapper.writeValueAsBytes(response).length,
+                cborMapper.writeValueAsBytes(response).length,
+                smileMapper.writeValueAsBytes(response).length);
+    }
+    
+    @Benchmark
+    public byte[] json() throws Exception {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cborMapper.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smileMapper.writeValueAsBytes(response);
+    }
+    
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    private static SearchResponse buildResponse(int tripCount) {
+        String[] codes = {"BOS", "ORD", "DFW", "ATL", "DEN", "LAX"};
+        List<Airport> airports = new ArrayList<>();
+        for (String code : codes) {
+            airports.add(new Airport(code, code + " International Airport", code + " City", "USA"));
+        }
+        Airline airline = new Airline("AA", "American Airlines", "USA");
+        Airline partner = new Airline("B6", "JetBlue Airways", "USA");
+        
+        LocalDateTime base = LocalDateTime.of(2024, 3, 20, 6, 0);
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < tripCount; i++) {
+            Airport hub = airports.get(1 + i % (airports.size() - 2));
+            Flight first = flight("AA" + (100 + i), airports.get(0), hub, base.plusMinutes(i * 10L), airline, partner);
+            Flight second = flight("AA" + (500 + i), hub, airports.get(airports.size() - 1),
+                    first.getArrivalTime().plusHours(1), airline, partner);
+            List<Flight> legs = i % 3 == 0 ? List.of(first) : List.of(first, second);
+            long duration = legs.stream().mapToLong(Flight::getDurationInMinutes).sum();
+            trips.add(new Trip(airline.getCode(), new BigDecimal("160.00"), legs, duration));
+        }
+        return new SearchResponse(trips, new SearchRequest("BOS", "LAX", null));
+    }
+    
+    private static Flight flight(String number, Airport source, Airport destination, LocalDateTime departure,
+                                 Airline... airlines) {
+        Flight flight = new Flight(number, source, destination, departure, departure.plusHours(3));
+        for (Airline airline : airlines) {
+            flight.getFlightAirlines().add(new FlightAirline(flight, airline));
+        }
+        return flight;
+    }
+}
@@ -0,0 +1,68 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Fare;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fare engine over synthetic schedules: each operation prices every flight in the schedule once,
+ * as a one-leg and as a two-leg trip, so the score divided by the flight count is the per-flight cost.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="FareEngineBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class FareEngineBenchmark {
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int flights;
+    
+    @Param("42")
+    public long seed;
+    
+    private SearchEngine engine;
+    private SyntheticSchedule schedule;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        schedule = SyntheticSchedule.generate(flights, seed);
+        engine = new SearchEngine(schedule);
+    }
+    
+    @Benchmark
+    public void isFareApplicable(Blackhole blackhole) {
+        for (Flight flight : schedule.getFlights()) {
+            for (FlightAirline flightAirline : flight.getFlightAirlines()) {
+                List<Fare> fares = schedule.getFares(flightAirline.getAirline().getCode());
+                for (Fare fare : fares) {
+                    blackhole.consume(engine.isFareApplicable(fare, flight, 1));
+                    blackhole.consume(engine.isFareApplicable(fare, flight, 2));
+                }
+            }
+        }
+    }
+    
+    @Benchmark
+    public void calculateFarePrice(Blackhole blackhole) {
+        for (Flight flight : schedule.getFlights()) {
+            for (FlightAirline flightAirline : flight.getFlightAirlines()) {
+                Airline airline = flightAirline.getAirline();
+                BigDecimal oneLeg = engine.calculateFarePrice(flight, airline, 1);
+                BigDecimal twoLeg = engine.calculateFarePrice(flight, airline, 2);
+                blackhole.consume(oneLeg);
+                blackhole.consume(twoLeg);
+            }
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-loop HTTP load generator for a running instance loaded with a ScheduleGenerator schedule.
+ * Requests are started on a fixed schedule at the target rate, paced by OpenLoop, so a stalled server shows up
+ * in the percentiles instead of quietly lowering the offered load.
+ *
+ * Pass the same schedule options that were given to the generator so request parameters hit real data:
+ *   mvn -Pbenchmark test-compile exec:java@load-test \
+ *       -Dload.args="--flights=100000 --airports=150 --seed=7 --rate=50 --duration=60 --slo=planning:2000,search:250"
+ * Options: --url, --rate (requests/s), --duration and --warmup (seconds), --mix (operation:weight,...),
+ * --slo (operation:p99 ms,..., "all" for every request), --max-error-rate (0..1), --max-in-flight,
+ * --timeout (seconds), --user (writes), --login-user, --password, --hgrm (directory for percentile distributions);
+ * anything else is a schedule option.
+ * Operations: planning, search, airline, login, write (creates a flight, the next write deletes it).
+ * Logging in ends a user's other sessions, so the login operation uses a different account than writes.
+ */
+public class LoadGenerator {
+
+    private static final Set<String> LOAD_OPTIONS = Set.of("url", "rate", "duration", "warmup", "mix", "slo",
+            "max-error-rate", "max-in-flight", "timeout", "user", "login-user", "password", "hgrm");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Operation {
+        PLANNING, SEARCH, AIRLINE, LOGIN, WRITE;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Operation of(String key) {
+            return valueOf(key.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public static class Options {
+        public String url = "http://localhost:8080";
+        public double rate = 50;
+        public int durationSeconds = 60;
+        public int warmupSeconds = 10;
+        public Map<Operation, Integer> mix = parseMix("planning:40,search:30,airline:15,login:5,write:10");
+        // p99 limits in milliseconds by operation key, "all" covers every request
+        public Map<String, Double> sloP99Millis = new LinkedHashMap<>();
+        public double maxErrorRate = 0.01;
+        public int maxInFlight = 1000;
+        public int timeoutSeconds = 30;
+        public String user = "admin";
+        public String loginUser = "dl_admin";
+        public String password = "password123";
+        public Path hgrmDirectory;
+        public long seed = 42;
+
+        static Map<Operation, Integer> parseMix(String value) {
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":");
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight > 0) {
+                    mix.put(Operation.of(parts[0]), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("Mix needs at least one operation with a positive weight");
+            }
+            return mix;
+        }
+
+        static Map<String, Double> parseSlo(String value) {
+            Map<String, Double> slo = new LinkedHashMap<>();
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":");
+                String key = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (!key.equals("all")) {
+                    Operation.of(key);
+                }
+                slo.put(key, Double.parseDouble(parts[1].trim()));
+            }
+            return slo;
+        }
+
+        /**
+         * Applies the load options in args and returns the remaining arguments, which are schedule options.
+         */
+        String[] apply(String[] args) {
+            List<String> rest = new ArrayList<>();
+            for (String arg : args) {
+                String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : "";
+                if (!LOAD_OPTIONS.contains(name)) {
+                    rest.add(arg);
+                    continue;
+                }
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "url" -> url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "rate" -> rate = Double.parseDouble(value);
+                    case "duration" -> durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> warmupSeconds = Integer.parseInt(value);
+                    case "mix" -> mix = parseMix(value);
+                    case "slo" -> sloP99Millis = parseSlo(value);
+                    case "max-error-rate" -> maxErrorRate = Double.parseDouble(value);
+                    case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                    case "timeout" -> timeoutSeconds = Integer.parseInt(value);
+                    case "user" -> user = value;
+                    case "login-user" -> loginUser = value;
+                    case "password" -> password = value;
+                    case "hgrm" -> hgrmDirectory = Path.of(value);
+                    default -> throw new IllegalStateException(name);
+                }
+            }
+            return rest.toArray(new String[0]);
+        }
+    }
+
+    private final Options options;
+    private final SyntheticSchedule schedule;
+    private final Map<String, List<Flight>> departuresByAirport = new HashMap<>();
+    private final Random random;
+    private final Operation[] weightedOperations;
+
+    private final Queue<String> createdFlightIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger flightNumbers = new AtomicInteger();
+    private OpenLoop loop;
+    private HttpClient client;
+    private String sessionId;
+
+    public LoadGenerator(Options options, SyntheticSchedule schedule) {
+        this.options = options;
+        this.schedule = schedule;
+        this.random = new Random(options.seed);
+        for (Flight flight : schedule.getFlights()) {
+            departuresByAirport.computeIfAbsent(flight.getSourceAirport().getCode(), code -> new ArrayList<>()).add(flight);
+        }
+
+        List<Operation> weighted = new ArrayList<>();
+        options.mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        this.weightedOperations = weighted.toArray(new Operation[0]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options();
+        ScheduleGenerator.Options scheduleOptions = ScheduleGenerator.Options.parse(options.apply(args));
+        options.seed = scheduleOptions.seed;
+
+        SyntheticSchedule schedule = new ScheduleGenerator(scheduleOptions).generate();
+        Result result = new LoadGenerator(options, schedule).run();
+        result.print(System.out);
+        if (options.hgrmDirectory != null) {
+            result.writePercentileDistributions(options.hgrmDirectory);
+        }
+
+        List<String> failures = result.failures(options.sloP99Millis, options.maxErrorRate);
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Load test failed: " + String.join("; ", failures));
+        }
+    }
+
+    /**
+     * Checks the target serves this schedule, then offers load for the warmup and measured windows.
+     */
+    public Result run() throws IOException, InterruptedException {
+        loop = new OpenLoop("load-generator", options.maxInFlight, options.timeoutSeconds);
+        client = loop.client();
+        try {
+            verifyDataset();
+            if (options.mix.containsKey(Operation.WRITE)) {
+                sessionId = login();
+            }
+            return offerLoad();
+        } finally {
+            deleteCreatedFlights();
+            loop.close();
+        }
+    }
+
+    private void verifyDataset() throws IOException, InterruptedException {
+        Flight last = schedule.getFlights().get(schedule.getFlights().size() - 1);
+        HttpResponse<String> response = client.send(get("/api/flights/" + last.getId()), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains(last.getId())) {
+            throw new IllegalStateException("Flight " + last.getId() + " not found at " + options.url
+                    + " (status " + response.statusCode() + "); load the schedule with the same options first");
+        }
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(options.user), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + options.user + " failed with status " + response.statusCode());
+        }
+        return JSON.readTree(response.body()).path("token").asText();
+    }
+
+    private Result offerLoad() throws InterruptedException {
+        Result result = new Result(options);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate);
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            boolean started = loop.start(intended);
+
+            Operation operation = weightedOperations[random.nextInt(weightedOperations.length)];
+            Stats stats = intended >= measureStart ? result.stats(operation) : null;
+            if (!started) {
+                // The server is so far behind that this many requests are outstanding; count it rather than queue it
+                if (stats != null) {
+                    stats.dropped.increment();
+                }
+                continue;
+            }
+            send(operation).whenComplete((status, error) -> {
+                // Record before releasing, so the final wait for all permits also waits for the stats
+                if (stats != null) {
+                    stats.record(intended, error == null && status / 100 == 2);
+                }
+                loop.finish();
+            });
+        }
+
+        loop.awaitOutstanding();
+        result.elapsedNanos = end - measureStart;
+        return result;
+    }
+
+    private CompletableFuture<Integer> send(Operation operation) {
+        return switch (operation) {
+            case PLANNING -> discard(planningRequest());
+            case SEARCH -> discard(searchRequest());
+            case AIRLINE -> {
+                Airline airline = pick(schedule.getAirlines());
+                yield discard(get("/api/flights/airline/" + airline.getCode()));
+            }
+            case LOGIN -> discard(loginRequest(options.loginUser));
+            case WRITE -> write();
+        };
+    }
+
+    private HttpRequest planningRequest() {
+        Flight first = pick(schedule.getFlights());
+        String destination = first.getDestinationAirport().getCode();
+        // Half the searches need a connection: continue from the first leg's destination
+        List<Flight> onward = departuresByAirport.get(destination);
+        if (onward != null && random.nextBoolean()) {
+            Flight second = pick(onward);
+            if (second.getDestinationAirport() != first.getSourceAirport()) {
+                destination = second.getDestinationAirport().getCode();
+            }
+        }
+        return get("/api/flights/planning?sourceAirport=" + first.getSourceAirport().getCode()
+                + "&destinationAirport=" + destination
+                + "&departureTime=" + encode(first.getDepartureTime().toLocalDate().atStartOfDay()));
+    }
+
+    private HttpRequest searchRequest() {
+        Flight flight = pick(schedule.getFlights());
+        return get("/api/flights/search?source=" + flight.getSourceAirport().getCode()
+                + "&destination=" + flight.getDestinationAirport().getCode()
+                + "&departureTime=" + encode(flight.getDepartureTime().toLocalDate().atStartOfDay()));
+    }
+
+    private HttpRequest loginRequest(String user) {
+        return HttpRequest.newBuilder(URI.create(options.url + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(Map.of(
+                        "usernameOrEmail", user, "password", options.password))))
+                .build();
+    }
+
+    /**
+     * Alternates between creating a flight and deleting one created earlier, so the dataset stays the same size.
+     */
+    private CompletableFuture<Integer> write() {
+        String id = createdFlightIds.poll();
+        if (id != null) {
+            HttpRequest request = authenticated("/api/flights/" + id).DELETE().build();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                // Keep the flight for a later write or the final cleanup if the delete did not go through
+                if (error != null || (response.statusCode() / 100 != 2 && response.statusCode() != 404)) {
+                    createdFlightIds.add(id);
+                }
+            }).thenApply(HttpResponse::statusCode);
+        }
+
+        Flight template = pick(schedule.getFlights());
+        Airport destination = pick(schedule.getAirports());
+        if (destination == template.getSourceAirport()) {
+            destination = template.getDestinationAirport();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("flightNumber", "LT" + flightNumbers.incrementAndGet() % 100_000);
+        body.put("sourceAirportCode", template.getSourceAirport().getCode());
+        body.put("destinationAirportCode", destination.getCode());
+        body.put("departureTime", template.getDepartureTime().toString());
+        body.put("arrivalTime", template.getArrivalTime().toString());
+        body.put("airlineCodes", List.of(pick(schedule.getAirlines()).getCode()));
+
+        HttpRequest request = authenticated("/api/flights")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() == 201) {
+                createdFlightIds.add(readId(response.body()));
+            }
+            return response.statusCode();
+        });
+    }
+
+    private void deleteCreatedFlights() {
+        if (sessionId == null) {
+            return;
+        }
+        for (String id : List.copyOf(createdFlightIds)) {
+            try {
+                HttpResponse<Void> response = client.send(authenticated("/api/flights/" + id).DELETE().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2 && response.statusCode() != 404) {
+                    System.err.println("Could not delete load test flight " + id + ": status " + response.statusCode());
+                }
+            } catch (IOException e) {
+                System.err.println("Could not delete load test flight " + id + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<Integer> discard(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(options.url + path))
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest.Builder authenticated(String path) {
+        return HttpRequest.newBuilder(URI.create(options.url + path))
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .header("X-Session-ID", sessionId);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(LocalDateTime time) {
+        return URLEncoder.encode(time.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static String json(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readId(String body) {
+        try {
+            JsonNode node = JSON.readTree(body);
+            return node.path("id").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable flight in create response", e);
+        }
+    }
+
+    /**
+     * Counts and latencies of one operation during the measured window.
+     */
+    public static final class Stats extends OpenLoop.Stats {
+
+        void record(long intendedNanos, boolean success) {
+            recordLatency(intendedNanos);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        public long requests() {
+            return latency.getTotalCount() + dropped.sum();
+        }
+
+        public long failures() {
+            return errors.sum() + dropped.sum();
+        }
+
+        public double errorRate() {
+            return requests() == 0 ? 0 : (double) failures() / requests();
+        }
+    }
+
+    /**
+     * Per-operation stats of a run; latencies include failed requests.
+     */
+    public static final class Result {
+        private final Options options;
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        long elapsedNanos;
+
+        Result(Options options) {
+            this.options = options;
+            options.mix.keySet().forEach(operation -> stats.put(operation, new Stats()));
+        }
+
+        public Stats stats(Operation operation) {
+            return stats.get(operation);
+        }
+
+        public Stats total() {
+            Stats total = new Stats();
+            for (Stats operation : stats.values()) {
+                total.add(operation);
+            }
+            return total;
+        }
+
+        public double throughput(Stats stats) {
+            return stats.latency.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * SLO and error budget breaches, empty when the run passed.
+         */
+        public List<String> failures(Map<String, Double> sloP99Millis, double maxErrorRate) {
+            List<String> failures = new ArrayList<>();
+            sloP99Millis.forEach((key, limit) -> {
+                Stats measured = key.equals("all") ? total() : stats.get(Operation.of(key));
+                if (measured != null && measured.latency.getTotalCount() > 0 && measured.percentileMillis(99) > limit) {
+                    failures.add(String.format(Locale.ROOT, "%s p99 %.1f ms > %.0f ms", key, measured.percentileMillis(99), limit));
+                }
+            });
+            Stats total = total();
+            if (total.errorRate() > maxErrorRate) {
+                failures.add(String.format(Locale.ROOT, "error rate %.2f%% > %.2f%%", total.errorRate() * 100, maxErrorRate * 100));
+            }
+            return failures;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(Locale.ROOT, "Offered %.1f req/s for %d s against %s (after %d s warmup)%n%n",
+                    options.rate, options.durationSeconds, options.url, options.warmupSeconds);
+            out.println("| operation | requests | req/s | errors | dropped | error % | p50 ms | p90 ms | p99 ms | p99.9 ms | max ms |");
+            out.println("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|");
+            stats.forEach((operation, measured) -> printRow(out, operation.key(), measured));
+            printRow(out, "all", total());
+            out.println();
+
+            List<String> failures = failures(options.sloP99Millis, options.maxErrorRate);
+            options.sloP99Millis.forEach((key, limit) -> out.printf(Locale.ROOT, "SLO %s p99 <= %.0f ms%n", key, limit));
+            out.println(failures.isEmpty() ? "PASS" : "FAIL: " + String.join("; ", failures));
+        }
+
+        private void printRow(PrintStream out, String name, Stats measured) {
+            out.printf(Locale.ROOT, "| %s | %d | %.1f | %d | %d | %.2f | %.1f | %.1f | %.1f | %.1f | %.1f |%n",
+                    name, measured.requests(), throughput(measured), measured.errors.sum(), measured.dropped.sum(),
+                    measured.errorRate() * 100, measured.percentileMillis(50), measured.percentileMillis(90),
+                    measured.percentileMillis(99), measured.percentileMillis(99.9),
+                    measured.latency.getMaxValue() / 1000.0);
+        }
+
+        /**
+         * Writes one HdrHistogram percentile distribution per operation, in milliseconds, for plotting.
+         */
+        public void writePercentileDistributions(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                    entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+    }
+}
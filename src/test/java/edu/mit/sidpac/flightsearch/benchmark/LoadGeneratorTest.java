@@ -0,0 +1,154 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for LoadGenerator
+ * Runs short loads against an in-process stub server and checks counting, error rates and SLO evaluation
+ */
+class LoadGeneratorTest {
+
+    private static final SyntheticSchedule SCHEDULE = SyntheticSchedule.generate(2000, 42);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private volatile boolean datasetLoaded = true;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        boolean authenticated = "stub-session".equals(exchange.getRequestHeaders().getFirst("X-Session-ID"));
+        exchange.getRequestBody().readAllBytes();
+
+        if (path.equals("/api/auth/login")) {
+            respond(exchange, 200, "{\"token\":\"stub-session\"}");
+        } else if (path.startsWith("/api/flights/airline/")) {
+            respond(exchange, 500, "");
+        } else if (path.equals("/api/flights/search")) {
+            sleep(30);
+            respond(exchange, 200, "[]");
+        } else if (method.equals("POST") && path.equals("/api/flights")) {
+            respond(exchange, authenticated ? 201 : 401, "{\"id\":\"created-" + created.incrementAndGet() + "\"}");
+        } else if (method.equals("DELETE")) {
+            if (authenticated) {
+                deleted.incrementAndGet();
+            }
+            respond(exchange, authenticated ? 200 : 401, "");
+        } else if (path.startsWith("/api/flights/gen-flight-")) {
+            String id = path.substring("/api/flights/".length());
+            respond(exchange, datasetLoaded ? 200 : 404, datasetLoaded ? "{\"id\":\"" + id + "\"}" : "");
+        } else {
+            respond(exchange, 200, "{}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LoadGenerator.Options options(String mix) {
+        LoadGenerator.Options options = new LoadGenerator.Options();
+        options.url = "http://127.0.0.1:" + server.getAddress().getPort();
+        options.rate = 200;
+        options.durationSeconds = 1;
+        options.warmupSeconds = 0;
+        options.timeoutSeconds = 5;
+        options.mix = LoadGenerator.Options.parseMix(mix);
+        return options;
+    }
+
+    /**
+     * Test: Requests are offered at the target rate across the mix, and write flights are cleaned up
+     */
+    @Test
+    void testRun_OffersTargetRateAcrossMix() throws Exception {
+        LoadGenerator.Options options = options("planning:2,search:1,login:1,write:2");
+
+        LoadGenerator.Result result = new LoadGenerator(options, SCHEDULE).run();
+
+        LoadGenerator.Stats total = result.total();
+        assertEquals(200, total.requests(), 5);
+        assertEquals(0, total.failures());
+        for (LoadGenerator.Operation operation : options.mix.keySet()) {
+            assertTrue(result.stats(operation).requests() > 0, operation + " should be exercised");
+        }
+        assertTrue(result.stats(LoadGenerator.Operation.SEARCH).percentileMillis(50) >= 30);
+        assertTrue(created.get() > 0);
+        assertEquals(created.get(), deleted.get(), "every created flight should be deleted");
+        assertTrue(result.failures(options.sloP99Millis, options.maxErrorRate).isEmpty());
+    }
+
+    /**
+     * Test: Failed responses count as errors, and p99 and error budgets are enforced
+     */
+    @Test
+    void testRun_ReportsErrorAndSloBreaches() throws Exception {
+        LoadGenerator.Options options = options("airline:1,search:1");
+        options.sloP99Millis = LoadGenerator.Options.parseSlo("search:10,all:5000");
+
+        LoadGenerator.Result result = new LoadGenerator(options, SCHEDULE).run();
+
+        LoadGenerator.Stats airline = result.stats(LoadGenerator.Operation.AIRLINE);
+        assertEquals(1.0, airline.errorRate());
+        assertEquals(0.0, result.stats(LoadGenerator.Operation.SEARCH).errorRate());
+
+        List<String> failures = result.failures(options.sloP99Millis, options.maxErrorRate);
+        assertEquals(2, failures.size(), failures.toString());
+        assertTrue(failures.get(0).startsWith("search p99"));
+        assertTrue(failures.get(1).startsWith("error rate"));
+    }
+
+    /**
+     * Test: A target that does not serve the schedule is rejected before any load is offered
+     */
+    @Test
+    void testRun_RejectsMissingDataset() {
+        datasetLoaded = false;
+
+        assertThrows(IllegalStateException.class, () -> new LoadGenerator(options("search:1"), SCHEDULE).run());
+    }
+}
@@ -0,0 +1,116 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop request pacing shared by LoadGenerator and TrafficReplayer.
+ * Each request is started at its intended time whether or not earlier ones have finished, and latency is measured
+ * from that time, so a stalled server shows up in the percentiles instead of quietly lowering the offered load.
+ * Past the in-flight limit requests are dropped and counted rather than queued.
+ */
+final class OpenLoop implements AutoCloseable {
+
+    // Microseconds, up to an hour, three significant digits
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final int timeoutSeconds;
+
+    OpenLoop(String threadName, int maxInFlight, int timeoutSeconds) {
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(timeoutSeconds))
+                .executor(executor)
+                .build();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    /**
+     * Waits until the intended start, then takes an in-flight slot. False means the request should be dropped;
+     * otherwise call finish() once it completes.
+     */
+    boolean start(long intendedNanos) {
+        long wait;
+        while ((wait = intendedNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+        return inFlight.tryAcquire();
+    }
+
+    void finish() {
+        inFlight.release();
+    }
+
+    /**
+     * Waits up to the request timeout for outstanding requests to finish.
+     */
+    void awaitOutstanding() throws InterruptedException {
+        if (inFlight.tryAcquire(maxInFlight, timeoutSeconds, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    static Histogram histogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    static void record(Histogram histogram, long micros) {
+        histogram.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Latency from the intended start, failures and drops of one operation or endpoint.
+     */
+    static class Stats {
+        final Histogram latency = histogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        void recordLatency(long intendedNanos) {
+            record(latency, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos));
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            errors.add(other.errors.sum());
+            dropped.add(other.dropped.sum());
+        }
+
+        public double percentileMillis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+    }
+}
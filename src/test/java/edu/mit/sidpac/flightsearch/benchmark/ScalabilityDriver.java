@@ -0,0 +1,351 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
+import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import org.HdrHistogram.Histogram;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Sweeps worker thread count and schedule size over the in-process search engine and writes a scaling report.
+ * Each cell runs closed-loop workers calling FlightSearchService.searchFlights on one shared engine for a fixed
+ * time, so shared-state contention shows up as a drop in efficiency (speedup divided by threads), and cache
+ * effects as efficiency above 1. Heap after loading the schedule, peak heap, allocation rate and GC time are
+ * recorded per cell.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec@scalability \
+ *       -Dscalability.args="--flights=10000,100000,1000000 --threads=1,2,4,8 --duration=20"
+ * Options: --flights and --threads (comma separated; threads default to powers of two up to the core count),
+ * --duration and --warmup (seconds per cell), --timeout-ms (search deadline, 0 for none), --seed,
+ * --out (report directory, default target/scalability).
+ * Writes scalability.csv and scalability.md to the report directory.
+ */
+public class ScalabilityDriver {
+
+    private static final int SEARCH_PAIRS = 1024;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    // Below this efficiency a cell is flagged as a contention point, above the other as super-linear
+    private static final double CONTENTION_EFFICIENCY = 0.7;
+    private static final double SUPER_LINEAR_EFFICIENCY = 1.05;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static class Options {
+        public List<Integer> flights = List.of(10_000, 100_000, 1_000_000);
+        public List<Integer> threads = defaultThreads(Runtime.getRuntime().availableProcessors());
+        public int durationSeconds = 20;
+        public int warmupSeconds = 5;
+        public long timeoutMs = 0;
+        public long seed = 42;
+        public Path out = Path.of("target", "scalability");
+
+        static List<Integer> defaultThreads(int cores) {
+            List<Integer> threads = new ArrayList<>();
+            for (int count = 1; count < cores; count *= 2) {
+                threads.add(count);
+            }
+            threads.add(cores);
+            return threads;
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    continue;
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "flights" -> options.flights = integers(value);
+                    case "threads" -> options.threads = integers(value);
+                    case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                    case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                    case "timeout-ms" -> options.timeoutMs = Long.parseLong(value);
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "out" -> options.out = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            return options;
+        }
+
+        private static List<Integer> integers(String value) {
+            return Arrays.stream(value.split(",")).map(String::trim).map(Integer::valueOf).toList();
+        }
+    }
+
+    /**
+     * One measured (flights, threads) combination.
+     */
+    public record Cell(int flights, int threads, long operations, double throughput, double speedup,
+                       double p50Millis, double p99Millis, double partialRate, double allocatedMbPerSecond,
+                       double gcPercent, long heapAfterLoadMb, long peakHeapMb) {
+
+        double efficiency() {
+            return speedup / threads;
+        }
+
+        Cell withSpeedup(double speedup) {
+            return new Cell(flights, threads, operations, throughput, speedup, p50Millis, p99Millis, partialRate,
+                    allocatedMbPerSecond, gcPercent, heapAfterLoadMb, peakHeapMb);
+        }
+    }
+
+    private final Options options;
+    private volatile long sink;
+
+    public ScalabilityDriver(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ScalabilityDriver driver = new ScalabilityDriver(options);
+        List<Cell> cells = driver.run();
+
+        String report = markdown(options, cells, Runtime.getRuntime().availableProcessors());
+        Files.createDirectories(options.out);
+        Files.writeString(options.out.resolve("scalability.csv"), csv(cells));
+        Files.writeString(options.out.resolve("scalability.md"), report);
+        System.out.println(report);
+        System.out.println("Report written to " + options.out.toAbsolutePath());
+    }
+
+    public List<Cell> run() throws Exception {
+        List<Cell> cells = new ArrayList<>();
+        for (int flights : options.flights) {
+            SyntheticSchedule schedule = SyntheticSchedule.generate(flights, options.seed);
+            SearchEngine engine = new SearchEngine(schedule);
+            List<SearchRequest> requests = searchRequests(schedule);
+            long heapAfterLoadMb = usedHeapAfterGc() / (1024 * 1024);
+
+            // Speedup is relative to the first thread count of the sweep, normally one thread
+            double perThreadBaseline = 0;
+            for (int threads : options.threads) {
+                Cell cell = measure(engine, requests, flights, threads, heapAfterLoadMb);
+                if (perThreadBaseline == 0) {
+                    perThreadBaseline = cell.throughput() / threads;
+                }
+                cell = cell.withSpeedup(cell.throughput() / perThreadBaseline);
+                cells.add(cell);
+                System.out.printf(Locale.ROOT, "%,d flights, %d threads: %.1f searches/s, p50 %.2f ms, p99 %.2f ms%n",
+                        flights, threads, cell.throughput(), cell.p50Millis(), cell.p99Millis());
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Source and destination pairs drawn from the schedule; half of them need a connection.
+     */
+    private List<SearchRequest> searchRequests(SyntheticSchedule schedule) {
+        Random random = new Random(options.seed);
+        List<Flight> flights = schedule.getFlights();
+        Map<String, List<Flight>> departures = new HashMap<>();
+        for (Flight flight : flights) {
+            departures.computeIfAbsent(flight.getSourceAirport().getCode(), code -> new ArrayList<>()).add(flight);
+        }
+
+        List<SearchRequest> requests = new ArrayList<>(SEARCH_PAIRS);
+        while (requests.size() < SEARCH_PAIRS) {
+            Flight first = flights.get(random.nextInt(flights.size()));
+            String destination = first.getDestinationAirport().getCode();
+            List<Flight> onward = departures.get(destination);
+            if (onward != null && random.nextBoolean()) {
+                Flight second = onward.get(random.nextInt(onward.size()));
+                if (second.getDestinationAirport() != first.getSourceAirport()) {
+                    destination = second.getDestinationAirport().getCode();
+                }
+            }
+            SearchRequest request = new SearchRequest(first.getSourceAirport().getCode(), destination, null);
+            // Requested deadlines are capped at the engine's maximum, which SearchEngine sets to an hour
+            request.setTimeoutMs(options.timeoutMs > 0 ? options.timeoutMs : Long.MAX_VALUE);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private Cell measure(SearchEngine engine, List<SearchRequest> requests, int flights, int threads,
+                         long heapAfterLoadMb) throws InterruptedException {
+        usedHeapAfterGc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        Histogram[] latencies = new Histogram[threads];
+        long[] allocated = new long[threads];
+        LongAdder partial = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                Histogram latency = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+                Random random = new Random(options.seed + index);
+                long checksum = 0;
+                while (System.nanoTime() < warmupEnd) {
+                    checksum += search(engine, requests.get(random.nextInt(requests.size()))).getTotalResults();
+                }
+                long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+                long started;
+                while ((started = System.nanoTime()) < end) {
+                    SearchResponse response = search(engine, requests.get(random.nextInt(requests.size())));
+                    latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started),
+                            HIGHEST_TRACKABLE_MICROS));
+                    checksum += response.getTotalResults();
+                    if (response.isPartial()) {
+                        partial.increment();
+                    }
+                }
+                allocated[index] = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                latencies[index] = latency;
+                sink += checksum;
+            }, "scalability-" + t);
+            worker.setDaemon(true);
+            worker.setUncaughtExceptionHandler((thread, error) -> failure.compareAndSet(null, error));
+            workers.add(worker);
+            worker.start();
+        }
+
+        LockSupport.parkNanos(warmupEnd - System.nanoTime());
+        long gcBefore = gcMillis();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Search worker failed", failure.get());
+        }
+        // The last search of each worker may run past the window; it still counts toward the window
+        double seconds = Math.max(System.nanoTime() - warmupEnd, end - warmupEnd) / 1e9;
+        long gcMillis = gcMillis() - gcBefore;
+
+        Histogram merged = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        for (Histogram latency : latencies) {
+            merged.add(latency);
+        }
+        long operations = merged.getTotalCount();
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        return new Cell(flights, threads, operations, operations / seconds, 0,
+                merged.getValueAtPercentile(50) / 1000.0, merged.getValueAtPercentile(99) / 1000.0,
+                operations == 0 ? 0 : (double) partial.sum() / operations,
+                Arrays.stream(allocated).sum() / seconds / (1024 * 1024),
+                gcMillis / (seconds * 10), heapAfterLoadMb, peakHeap / (1024 * 1024));
+    }
+
+    private static SearchResponse search(SearchEngine engine, SearchRequest request) {
+        return engine.service().searchFlights(request);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    static String csv(List<Cell> cells) {
+        StringBuilder csv = new StringBuilder("flights,threads,operations,throughput_per_s,speedup,efficiency,"
+                + "p50_ms,p99_ms,partial_rate,alloc_mb_per_s,gc_percent,heap_after_load_mb,peak_heap_mb\n");
+        for (Cell cell : cells) {
+            csv.append(String.format(Locale.ROOT, "%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.4f,%.1f,%.2f,%d,%d%n",
+                    cell.flights(), cell.threads(), cell.operations(), cell.throughput(), cell.speedup(),
+                    cell.efficiency(), cell.p50Millis(), cell.p99Millis(), cell.partialRate(),
+                    cell.allocatedMbPerSecond(), cell.gcPercent(), cell.heapAfterLoadMb(), cell.peakHeapMb()));
+        }
+        return csv.toString();
+    }
+
+    static String markdown(Options options, List<Cell> cells, int cores) {
+        Runtime runtime = Runtime.getRuntime();
+        StringBuilder md = new StringBuilder("# Search scalability\n\n");
+        md.append(String.format(Locale.ROOT, "%d cores, %d MB max heap, Java %s. %d s per cell after %d s warmup, "
+                        + "seed %d, search deadline %s.%n%n",
+                cores, runtime.maxMemory() / (1024 * 1024), System.getProperty("java.version"),
+                options.durationSeconds, options.warmupSeconds, options.seed,
+                options.timeoutMs > 0 ? options.timeoutMs + " ms" : "none"));
+
+        Map<Integer, List<Cell>> bySize = cells.stream()
+                .collect(Collectors.groupingBy(Cell::flights, LinkedHashMap::new, Collectors.toList()));
+        List<String> findings = new ArrayList<>();
+        bySize.forEach((flights, row) -> {
+            md.append(String.format(Locale.ROOT, "## %,d flights%n%n", flights));
+            md.append(String.format(Locale.ROOT, "Heap after loading the schedule: %d MB%n%n", row.get(0).heapAfterLoadMb()));
+            md.append("| threads | searches/s | speedup | efficiency | p50 ms | p99 ms | partial % | alloc MB/s | GC % | peak heap MB |\n");
+            md.append("|---:|---:|---:|---:|---:|---:|---:|---:|---:|---:|\n");
+            for (Cell cell : row) {
+                md.append(String.format(Locale.ROOT, "| %d | %.1f | %.2f | %.2f | %.2f | %.2f | %.2f | %.0f | %.1f | %d |%n",
+                        cell.threads(), cell.throughput(), cell.speedup(), cell.efficiency(), cell.p50Millis(),
+                        cell.p99Millis(), cell.partialRate() * 100, cell.allocatedMbPerSecond(), cell.gcPercent(),
+                        cell.peakHeapMb()));
+                // More threads than cores measures time slicing, not scaling
+                if (cell.threads() > row.get(0).threads() && cell.threads() <= cores) {
+                    if (cell.efficiency() < CONTENTION_EFFICIENCY) {
+                        findings.add(String.format(Locale.ROOT, "%,d flights, %d threads: efficiency %.2f, "
+                                + "look for contention (GC %.1f%%)", flights, cell.threads(), cell.efficiency(), cell.gcPercent()));
+                    } else if (cell.efficiency() > SUPER_LINEAR_EFFICIENCY) {
+                        findings.add(String.format(Locale.ROOT, "%,d flights, %d threads: super-linear, efficiency %.2f",
+                                flights, cell.threads(), cell.efficiency()));
+                    }
+                }
+            }
+            md.append('\n');
+        });
+
+        // Data-size scaling at the first thread count: cost growth per tenfold schedule
+        List<Integer> sizes = new ArrayList<>(bySize.keySet());
+        for (int i = 1; i < sizes.size(); i++) {
+            Cell smaller = bySize.get(sizes.get(i - 1)).get(0);
+            Cell larger = bySize.get(sizes.get(i)).get(0);
+            double sizeRatio = (double) larger.flights() / smaller.flights();
+            double latencyRatio = larger.p50Millis() / Math.max(smaller.p50Millis(), 0.001);
+            if (latencyRatio > sizeRatio * 1.5) {
+                findings.add(String.format(Locale.ROOT, "%,d to %,d flights: p50 grows %.1fx for %.0fx the data, "
+                        + "worse than linear", smaller.flights(), larger.flights(), latencyRatio, sizeRatio));
+            }
+        }
+
+        if (cells.stream().anyMatch(cell -> cell.threads() > cores)) {
+            findings.add(String.format(Locale.ROOT, "Thread counts above the %d available cores are oversubscribed "
+                    + "and not judged for contention", cores));
+        }
+
+        md.append("## Findings\n\n");
+        if (findings.isEmpty()) {
+            md.append(String.format(Locale.ROOT, "No cell below %.2f or above %.2f efficiency, and latency grows "
+                    + "at most linearly with the schedule.%n", CONTENTION_EFFICIENCY, SUPER_LINEAR_EFFICIENCY));
+        }
+        findings.forEach(finding -> md.append("- ").append(finding).append('\n'));
+        return md.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for ScalabilityDriver
+ * Runs a tiny sweep end to end and checks the report's contention, super-linear and size findings
+ */
+class ScalabilityDriverTest {
+
+    /**
+     * Test: Every (flights, threads) cell is measured, with speedup relative to the first thread count
+     */
+    @Test
+    void testRun_MeasuresEveryCell() throws Exception {
+        ScalabilityDriver.Options options = new ScalabilityDriver.Options();
+        options.flights = List.of(1000);
+        options.threads = List.of(1, 2);
+        options.durationSeconds = 1;
+        options.warmupSeconds = 0;
+
+        List<ScalabilityDriver.Cell> cells = new ScalabilityDriver(options).run();
+
+        assertEquals(2, cells.size());
+        assertEquals(1.0, cells.get(0).speedup(), 1e-9);
+        for (ScalabilityDriver.Cell cell : cells) {
+            assertTrue(cell.operations() > 0);
+            assertTrue(cell.p99Millis() >= cell.p50Millis());
+            assertTrue(cell.heapAfterLoadMb() > 0);
+            assertEquals(0.0, cell.partialRate());
+        }
+        assertEquals(3, ScalabilityDriver.csv(cells).lines().count(), "header plus one row per cell");
+    }
+
+    /**
+     * Test: Low efficiency, super-linear speedup and worse than linear size growth are called out
+     */
+    @Test
+    void testMarkdown_ReportsFindings() {
+        List<ScalabilityDriver.Cell> cells = List.of(
+                cell(10_000, 1, 100, 1.0, 10),
+                cell(10_000, 4, 200, 2.0, 20),
+                cell(10_000, 8, 900, 9.0, 9),
+                cell(100_000, 1, 5, 1.0, 200),
+                cell(100_000, 16, 80, 16.0, 200));
+
+        String report = ScalabilityDriver.markdown(new ScalabilityDriver.Options(), cells, 8);
+
+        assertTrue(report.contains("## 10,000 flights"));
+        assertTrue(report.contains("## 100,000 flights"));
+        assertTrue(report.contains("10,000 flights, 4 threads: efficiency 0.50"), report);
+        assertTrue(report.contains("10,000 flights, 8 threads: super-linear"), report);
+        assertTrue(report.contains("10,000 to 100,000 flights: p50 grows 20.0x"), report);
+        assertFalse(report.contains("100,000 flights, 16 threads"), "oversubscribed cells are not judged");
+        assertTrue(report.contains("above the 8 available cores"));
+    }
+
+    private static ScalabilityDriver.Cell cell(int flights, int threads, double throughput, double speedup, double p50) {
+        return new ScalabilityDriver.Cell(flights, threads, (long) throughput * 10, throughput, speedup,
+                p50, p50 * 2, 0, 100, 0.5, 50, 400);
+    }
+}
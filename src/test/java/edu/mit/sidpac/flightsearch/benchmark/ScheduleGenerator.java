@@ -0,0 +1,436 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.Fare;
+import edu.mit.sidpac.flightsearch.entity.FareRestriction;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import edu.mit.sidpac.flightsearch.entity.RestrictionType;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic hub-and-spoke schedule generator.
+ * Each airline connects a few hubs to weighted spoke airports in daily banks: spoke flights arrive
+ * shortly before a bank and leave shortly after it, so connections at hubs look like a real network.
+ * The same options and seed always give the same entities, ids included.
+ *
+ * Writes into an existing SQLite database (schema from init-database.sql or the application), replacing
+ * its airports, airlines, flights and fares; users and sessions are kept:
+ *   mvn -Pbenchmark test-compile exec:java@generate-schedule \
+ *       -Dgenerator.args="--db=data/flight_search.db --flights=100000 --seed=7"
+ * Options: --seed, --airports, --airlines, --hubs (per airline), --spokes (per hub), --banks (per day),
+ * --days, --codeshare (0..1), --fares (per airline), --flights (exact total), --start (first date), --db
+ */
+public class ScheduleGenerator {
+
+    // Real codes first so seeded users such as aa_admin still match an airline
+    private static final String[] AIRLINE_CODES = {"AA", "DL", "UA", "B6", "WN", "AS", "NK", "F9", "HA", "G4", "SY", "MX"};
+    private static final String[] DEPARTURE_CUTOFFS = {"08:00", "10:00", "12:00", "15:00"};
+
+    private static final int INSERT_BATCH_SIZE = 5000;
+
+    private final Options options;
+    private final Random random;
+
+    public ScheduleGenerator(Options options) {
+        this.options = options;
+        this.random = new Random(options.seed);
+    }
+
+    public static class Options {
+        public long seed = 42;
+        public int airports = 60;
+        public int airlines = 8;
+        public int hubsPerAirline = 3;
+        public int spokesPerHub = 25;
+        public int banksPerDay = 6;
+        public int days = 7;
+        // Share of flights sold by a second, marketing airline
+        public double codeshareRate = 0.25;
+        public int faresPerAirline = 12;
+        // Stop at exactly this many flights, adding days as needed; 0 means days decides
+        public int flights = 0;
+        public LocalDate startDate = LocalDate.of(2030, 1, 1);
+
+        /**
+         * Options sized so a network of roughly this many flights keeps realistic route density.
+         */
+        public static Options scaledTo(int flights, long seed) {
+            Options options = new Options();
+            options.seed = seed;
+            options.flights = flights;
+            options.airports = Math.max(20, Math.min(2000, (int) Math.sqrt(flights) / 2));
+            options.airlines = Math.min(AIRLINE_CODES.length, Math.max(4, options.airports / 20));
+            options.spokesPerHub = Math.min(options.airports - 1, 40);
+            return options;
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    continue;
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "seed" -> options.seed = Long.parseLong(value);
+                    case "airports" -> options.airports = Integer.parseInt(value);
+                    case "airlines" -> options.airlines = Integer.parseInt(value);
+                    case "hubs" -> options.hubsPerAirline = Integer.parseInt(value);
+                    case "spokes" -> options.spokesPerHub = Integer.parseInt(value);
+                    case "banks" -> options.banksPerDay = Integer.parseInt(value);
+                    case "days" -> options.days = Integer.parseInt(value);
+                    case "codeshare" -> options.codeshareRate = Double.parseDouble(value);
+                    case "fares" -> options.faresPerAirline = Integer.parseInt(value);
+                    case "flights" -> options.flights = Integer.parseInt(value);
+                    case "start" -> options.startDate = LocalDate.parse(value);
+                    case "db" -> { }
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            return options;
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String db = "data/flight_search.db";
+        for (String arg : args) {
+            if (arg.startsWith("--db=")) {
+                db = arg.substring("--db=".length());
+            }
+        }
+
+        long start = System.nanoTime();
+        SyntheticSchedule schedule = new ScheduleGenerator(Options.parse(args)).generate();
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + db)) {
+            write(schedule, connection);
+        }
+        System.out.printf("Wrote %d airports, %d airlines, %d flights and %d fares to %s in %d ms%n",
+                schedule.getAirports().size(), schedule.getAirlines().size(), schedule.getFlights().size(),
+                schedule.getAllFares().size(), db, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public SyntheticSchedule generate() {
+        if (options.airports < 2 || options.airlines < 1 || options.airlines > AIRLINE_CODES.length + 26 * 10) {
+            throw new IllegalArgumentException("Need at least 2 airports and between 1 and 272 airlines");
+        }
+
+        SyntheticSchedule schedule = new SyntheticSchedule();
+        double[][] positions = new double[options.airports][];
+        double[] weights = new double[options.airports];
+        for (int i = 0; i < options.airports; i++) {
+            String code = airportCode(i);
+            Airport airport = new Airport(code, code + " International Airport", code + " City", "USA");
+            airport.setId("gen-airport-" + code);
+            schedule.getAirports().add(airport);
+            // Kilometres on a continent-sized plane; traffic falls off with airport rank
+            positions[i] = new double[] {random.nextDouble() * 4500, random.nextDouble() * 2500};
+            weights[i] = 1.0 / Math.pow(i + 1, 0.7);
+        }
+
+        List<Network> networks = new ArrayList<>();
+        for (int i = 0; i < options.airlines; i++) {
+            String code = airlineCode(i);
+            Airline airline = new Airline(code, code + " Airlines", "USA");
+            airline.setId("gen-airline-" + code);
+            schedule.getAirlines().add(airline);
+            networks.add(network(airline, weights));
+        }
+        for (Airline airline : schedule.getAirlines()) {
+            schedule.getFaresByAirline().put(airline.getCode(), fares(airline, schedule.getAirports()));
+        }
+
+        int maxDays = options.flights > 0 ? Integer.MAX_VALUE : options.days;
+        for (int day = 0; day < maxDays && !full(schedule); day++) {
+            LocalDate date = options.startDate.plusDays(day);
+            for (int bank = 0; bank < options.banksPerDay && !full(schedule); bank++) {
+                // Banks spread evenly from 06:00 to 21:00
+                int bankMinute = 6 * 60 + (options.banksPerDay == 1 ? 0 : bank * 15 * 60 / (options.banksPerDay - 1));
+                LocalDateTime bankTime = date.atStartOfDay().plusMinutes(bankMinute);
+                for (Network network : networks) {
+                    addBank(schedule, network, bank, bankTime, positions);
+                    if (full(schedule)) {
+                        break;
+                    }
+                }
+            }
+            if (day > 0 && schedule.getFlights().isEmpty()) {
+                throw new IllegalStateException("Options produce no flights");
+            }
+        }
+        return schedule;
+    }
+
+    private boolean full(SyntheticSchedule schedule) {
+        return options.flights > 0 && schedule.getFlights().size() >= options.flights;
+    }
+
+    private Network network(Airline airline, double[] weights) {
+        int hubCount = Math.min(options.hubsPerAirline, weights.length);
+        List<Integer> hubs = new ArrayList<>(pickWeighted(weights, hubCount, Set.of()));
+        List<List<Integer>> spokes = new ArrayList<>();
+        for (int hub : hubs) {
+            Set<Integer> exclude = new LinkedHashSet<>(hubs);
+            int spokeCount = Math.min(options.spokesPerHub, weights.length - exclude.size());
+            spokes.add(new ArrayList<>(pickWeighted(weights, spokeCount, exclude)));
+        }
+        return new Network(airline, hubs, spokes);
+    }
+
+    private Set<Integer> pickWeighted(double[] weights, int count, Set<Integer> exclude) {
+        Set<Integer> picked = new LinkedHashSet<>();
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        while (picked.size() < count) {
+            double target = random.nextDouble() * total;
+            int index = 0;
+            while (index < weights.length - 1 && (target -= weights[index]) > 0) {
+                index++;
+            }
+            if (!exclude.contains(index)) {
+                picked.add(index);
+            }
+        }
+        return picked;
+    }
+
+    private void addBank(SyntheticSchedule schedule, Network network, int bank, LocalDateTime bankTime,
+                         double[][] positions) {
+        List<Airport> airports = schedule.getAirports();
+        for (int h = 0; h < network.hubs().size(); h++) {
+            int hub = network.hubs().get(h);
+            List<Integer> spokes = network.spokes().get(h);
+            for (int s = 0; s < spokes.size(); s++) {
+                int spoke = spokes.get(s);
+                // Larger spokes are served in more banks
+                int frequency = Math.max(1, (int) Math.round(options.banksPerDay / Math.sqrt(spoke + 1.0)));
+                if ((bank + s) % options.banksPerDay >= frequency) {
+                    continue;
+                }
+                int number = 1000 + (h * 100 + s) * 2;
+                long inboundMinutes = minutes(positions[spoke], positions[hub]);
+                LocalDateTime arrival = bankTime.minusMinutes(15 + random.nextInt(4) * 5L);
+                addFlight(schedule, network.airline(), number + bank * 10_000,
+                        airports.get(spoke), airports.get(hub), arrival.minusMinutes(inboundMinutes), arrival);
+                if (full(schedule)) {
+                    return;
+                }
+                LocalDateTime departure = bankTime.plusMinutes(30 + random.nextInt(6) * 5L);
+                addFlight(schedule, network.airline(), number + 1 + bank * 10_000,
+                        airports.get(hub), airports.get(spoke), departure,
+                        departure.plusMinutes(minutes(positions[hub], positions[spoke])));
+                if (full(schedule)) {
+                    return;
+                }
+            }
+            // Hub to hub trunk routes leave with the outbound wave
+            for (int other : network.hubs()) {
+                if (other == hub) {
+                    continue;
+                }
+                LocalDateTime departure = bankTime.plusMinutes(45);
+                addFlight(schedule, network.airline(), 100 + h * 10 + network.hubs().indexOf(other) + bank * 10_000,
+                        airports.get(hub), airports.get(other), departure,
+                        departure.plusMinutes(minutes(positions[hub], positions[other])));
+                if (full(schedule)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void addFlight(SyntheticSchedule schedule, Airline operator, int number, Airport source,
+                           Airport destination, LocalDateTime departure, LocalDateTime arrival) {
+        int index = schedule.getFlights().size();
+        Flight flight = new Flight(operator.getCode() + (number % 100_000), source, destination, departure, arrival);
+        flight.setId(String.format("gen-flight-%09d", index));
+        FlightAirline operating = new FlightAirline(flight, operator);
+        operating.setId(String.format("gen-fa-%09d-0", index));
+        flight.getFlightAirlines().add(operating);
+
+        if (schedule.getAirlines().size() > 1 && random.nextDouble() < options.codeshareRate) {
+            Airline partner = schedule.getAirlines().get(random.nextInt(schedule.getAirlines().size()));
+            if (partner != operator) {
+                FlightAirline marketing = new FlightAirline(flight, partner);
+                marketing.setId(String.format("gen-fa-%09d-1", index));
+                flight.getFlightAirlines().add(marketing);
+            }
+        }
+        schedule.getFlights().add(flight);
+    }
+
+    private long minutes(double[] from, double[] to) {
+        double distance = Math.hypot(from[0] - to[0], from[1] - to[1]);
+        // Taxi and climb plus cruise at about 800 km/h, rounded to five minutes
+        return Math.round((30 + distance * 60 / 800) / 5) * 5;
+    }
+
+    private List<Fare> fares(Airline airline, List<Airport> airports) {
+        List<Fare> fares = new ArrayList<>();
+        BigDecimal basePrice = BigDecimal.valueOf(250 + random.nextInt(200));
+        fares.add(fare(airline, fares.size(), basePrice, "Standard"));
+
+        RestrictionType[] types = RestrictionType.values();
+        while (fares.size() < options.faresPerAirline) {
+            int index = fares.size();
+            // Discount grows with the number of restrictions a fare carries
+            int restrictions = 1 + random.nextInt(Math.min(2, types.length));
+            BigDecimal discount = BigDecimal.valueOf(restrictions * (15 + random.nextInt(20)));
+            Fare fare = fare(airline, index, basePrice.subtract(discount), "Saver " + index);
+
+            // Cycle the primary restriction so every type appears in every catalog
+            Set<RestrictionType> used = new LinkedHashSet<>();
+            used.add(types[(index - 1) % types.length]);
+            while (used.size() < restrictions) {
+                used.add(types[random.nextInt(types.length)]);
+            }
+            int r = 0;
+            for (RestrictionType type : used) {
+                FareRestriction restriction = new FareRestriction(fare, type, restrictionValue(type, airports));
+                restriction.setId(String.format("gen-fr-%s-%03d-%d", airline.getCode(), index, r++));
+                fare.getRestrictions().add(restriction);
+            }
+            fares.add(fare);
+        }
+        return fares;
+    }
+
+    private String restrictionValue(RestrictionType type, List<Airport> airports) {
+        return switch (type) {
+            case ENDPOINT -> airports.get(random.nextInt(Math.min(airports.size(), 20))).getCode();
+            case DEPARTURE_TIME -> DEPARTURE_CUTOFFS[random.nextInt(DEPARTURE_CUTOFFS.length)];
+            case MULTI_LEG -> "2";
+        };
+    }
+
+    private Fare fare(Airline airline, int index, BigDecimal price, String name) {
+        Fare fare = new Fare(airline, price, name, name + " fare for " + airline.getCode());
+        fare.setId(String.format("gen-fare-%s-%03d", airline.getCode(), index));
+        return fare;
+    }
+
+    static String airportCode(int index) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + index % 26);
+            index /= 26;
+        }
+        return new String(code);
+    }
+
+    private static String airlineCode(int index) {
+        if (index < AIRLINE_CODES.length) {
+            return AIRLINE_CODES[index];
+        }
+        index -= AIRLINE_CODES.length;
+        return "" + (char) ('A' + index / 10) + (char) ('0' + index % 10);
+    }
+
+    /**
+     * Replaces the schedule tables' contents with the given schedule in one transaction.
+     */
+    public static void write(SyntheticSchedule schedule, Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[] {"fare_restrictions", "fares", "flight_airlines", "flights", "airlines", "airports"}) {
+                    statement.executeUpdate("DELETE FROM " + table);
+                }
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO airports (id, code, name, city, country, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (Airport airport : schedule.getAirports()) {
+                    bind(insert, airport.getId(), airport.getCode(), airport.getName(), airport.getCity(),
+                            airport.getCountry(), now, now);
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO airlines (id, code, name, country, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+                for (Airline airline : schedule.getAirlines()) {
+                    bind(insert, airline.getId(), airline.getCode(), airline.getName(), airline.getCountry(), now, now);
+                }
+                insert.executeBatch();
+            }
+
+            try (PreparedStatement flights = connection.prepareStatement(
+                    "INSERT INTO flights (id, flight_number, source_airport_id, destination_airport_id, " +
+                    "departure_time, arrival_time, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement flightAirlines = connection.prepareStatement(
+                    "INSERT INTO flight_airlines (id, flight_id, airline_id, created_at) VALUES (?, ?, ?, ?)")) {
+                int pending = 0;
+                for (Flight flight : schedule.getFlights()) {
+                    bind(flights, flight.getId(), flight.getFlightNumber(), flight.getSourceAirport().getId(),
+                            flight.getDestinationAirport().getId(), Timestamp.valueOf(flight.getDepartureTime()),
+                            Timestamp.valueOf(flight.getArrivalTime()), now, now);
+                    for (FlightAirline flightAirline : flight.getFlightAirlines()) {
+                        bind(flightAirlines, flightAirline.getId(), flight.getId(), flightAirline.getAirline().getId(), now);
+                    }
+                    if (++pending == INSERT_BATCH_SIZE) {
+                        flights.executeBatch();
+                        flightAirlines.executeBatch();
+                        pending = 0;
+                    }
+                }
+                flights.executeBatch();
+                flightAirlines.executeBatch();
+            }
+
+            try (PreparedStatement fares = connection.prepareStatement(
+                    "INSERT INTO fares (id, airline_id, base_price, fare_name, description, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement restrictions = connection.prepareStatement(
+                    "INSERT INTO fare_restrictions (id, fare_id, restriction_type, restriction_value, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?)")) {
+                for (Fare fare : schedule.getAllFares()) {
+                    bind(fares, fare.getId(), fare.getAirline().getId(), fare.getBasePrice(), fare.getFareName(),
+                            fare.getDescription(), now, now);
+                    for (FareRestriction restriction : fare.getRestrictions()) {
+                        bind(restrictions, restriction.getId(), fare.getId(), restriction.getRestrictionType().name(),
+                                restriction.getRestrictionValue(), now);
+                    }
+                }
+                fares.executeBatch();
+                restrictions.executeBatch();
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.addBatch();
+    }
+
+    private record Network(Airline airline, List<Integer> hubs, List<List<Integer>> spokes) {
+    }
+}
@@ -0,0 +1,134 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.entity.Fare;
+import edu.mit.sidpac.flightsearch.entity.FareRestriction;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.RestrictionType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for ScheduleGenerator
+ * Verifies determinism, network shape and fare coverage, and the SQLite writer against the init script schema
+ */
+class ScheduleGeneratorTest {
+
+    private static String fingerprint(SyntheticSchedule schedule) {
+        return schedule.getFlights().stream()
+                .map(flight -> flight.getId() + flight.getFlightNumber() + flight.getSourceAirport().getCode()
+                        + flight.getDestinationAirport().getCode() + flight.getDepartureTime() + flight.getFlightAirlines().size())
+                .collect(Collectors.joining("|"));
+    }
+
+    /**
+     * Test: Same options and seed give the same schedule, a different seed does not
+     */
+    @Test
+    void testGenerate_IsDeterministic() {
+        assertEquals(fingerprint(SyntheticSchedule.generate(2000, 7)), fingerprint(SyntheticSchedule.generate(2000, 7)));
+        assertNotEquals(fingerprint(SyntheticSchedule.generate(2000, 7)), fingerprint(SyntheticSchedule.generate(2000, 8)));
+    }
+
+    /**
+     * Test: A flight target is met exactly and every flight is a valid, operated leg
+     */
+    @Test
+    void testGenerate_FlightTargetAndValidLegs() {
+        SyntheticSchedule schedule = SyntheticSchedule.generate(5000, 42);
+
+        assertEquals(5000, schedule.getFlights().size());
+        for (Flight flight : schedule.getFlights()) {
+            assertNotEquals(flight.getSourceAirport(), flight.getDestinationAirport());
+            assertTrue(flight.getArrivalTime().isAfter(flight.getDepartureTime()));
+            assertFalse(flight.getFlightAirlines().isEmpty());
+            assertTrue(flight.getFlightNumber().length() <= 10);
+        }
+        assertEquals(5000, schedule.getFlights().stream().map(Flight::getId).distinct().count());
+        assertTrue(schedule.getFlights().stream().anyMatch(flight -> flight.getFlightAirlines().size() == 2),
+                "codeshares should be generated");
+    }
+
+    /**
+     * Test: Banks line up arrivals and departures at hubs, so connections exist
+     */
+    @Test
+    void testGenerate_HubsOfferConnections() {
+        ScheduleGenerator.Options options = new ScheduleGenerator.Options();
+        options.days = 1;
+        SyntheticSchedule schedule = new ScheduleGenerator(options).generate();
+
+        List<Flight> flights = schedule.getFlights();
+        long connections = flights.stream()
+                .filter(first -> flights.stream().anyMatch(second ->
+                        second.getSourceAirport() == first.getDestinationAirport()
+                                && second.getDestinationAirport() != first.getSourceAirport()
+                                && second.getDepartureTime().isAfter(first.getArrivalTime())
+                                && second.getDepartureTime().isBefore(first.getArrivalTime().plusHours(2))))
+                .count();
+        assertTrue(connections > flights.size() / 4, "most inbound legs should connect within two hours");
+    }
+
+    /**
+     * Test: Every airline gets a full fare catalog that uses every restriction type
+     */
+    @Test
+    void testGenerate_FareCatalogsCoverAllRestrictionTypes() {
+        ScheduleGenerator.Options options = new ScheduleGenerator.Options();
+        options.days = 1;
+        SyntheticSchedule schedule = new ScheduleGenerator(options).generate();
+
+        for (String airline : schedule.getAirlines().stream().map(a -> a.getCode()).toList()) {
+            List<Fare> fares = schedule.getFares(airline);
+            assertEquals(options.faresPerAirline, fares.size());
+            assertTrue(fares.stream().anyMatch(fare -> fare.getRestrictions().isEmpty()), "base fare for " + airline);
+            Set<RestrictionType> types = fares.stream()
+                    .flatMap(fare -> fare.getRestrictions().stream())
+                    .map(FareRestriction::getRestrictionType)
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(RestrictionType.class)));
+            assertEquals(EnumSet.allOf(RestrictionType.class), types);
+            assertTrue(fares.stream().allMatch(fare -> fare.getBasePrice().signum() > 0));
+        }
+    }
+
+    /**
+     * Test: Writing into a database created by init-database.sql replaces the schedule and keeps users
+     */
+    @Test
+    void testWrite_ReplacesScheduleInSqlite() throws Exception {
+        SyntheticSchedule schedule = SyntheticSchedule.generate(3000, 42);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(Files.readString(Path.of("scripts/init-database.sql")));
+            long users = count(statement, "users");
+
+            ScheduleGenerator.write(schedule, connection);
+
+            assertEquals(3000, count(statement, "flights"));
+            assertEquals(schedule.getAirports().size(), count(statement, "airports"));
+            assertEquals(schedule.getAllFares().size(), count(statement, "fares"));
+            assertEquals(schedule.getFlights().stream().mapToLong(flight -> flight.getFlightAirlines().size()).sum(),
+                    count(statement, "flight_airlines"));
+            assertEquals(users, count(statement, "users"));
+        }
+    }
+
+    private static long count(Statement statement, String table) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
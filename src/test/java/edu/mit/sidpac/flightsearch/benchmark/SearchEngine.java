@@ -0,0 +1,131 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Fare;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.dto.Trip;
+import edu.mit.sidpac.flightsearch.repository.FareRepository;
+import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import edu.mit.sidpac.flightsearch.service.FlightSearchService;
+import edu.mit.sidpac.flightsearch.service.SearchDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FlightSearchService wired to a SyntheticSchedule without a Spring context.
+ * Repositories are JDK proxies answering only the calls the search makes; the engine's private
+ * methods are reached through method handles, the same way FareCalculationTest reaches them.
+ */
+final class SearchEngine {
+    
+    // Long enough that no benchmarked search stops early
+    private static final long TIMEOUT_MS = 60 * 60 * 1000L;
+    
+    private static final Class<?> TALLY_TYPE;
+    private static final MethodHandle NEW_TALLY;
+    private static final MethodHandle FIND_DIRECT;
+    private static final MethodHandle FIND_CONNECTING;
+    private static final MethodHandle CALCULATE_FARE;
+    private static final MethodHandle IS_FARE_APPLICABLE;
+    
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(FlightSearchService.class, MethodHandles.lookup());
+            TALLY_TYPE = Class.forName(FlightSearchService.class.getName() + "$SearchTally");
+            NEW_TALLY = lookup.findConstructor(TALLY_TYPE, MethodType.methodType(void.class));
+            MethodType tripSearch = MethodType.methodType(void.class, List.class, String.class, String.class,
+                    LocalDateTime.class, SearchDeadline.class, List.class, TALLY_TYPE);
+            FIND_DIRECT = lookup.findVirtual(FlightSearchService.class, "findDirectTrips", tripSearch);
+            FIND_CONNECTING = lookup.findVirtual(FlightSearchService.class, "findConnectingTrips", tripSearch);
+            CALCULATE_FARE = lookup.findVirtual(FlightSearchService.class, "calculateFarePrice",
+                    MethodType.methodType(BigDecimal.class, Flight.class, Airline.class, int.class));
+            IS_FARE_APPLICABLE = lookup.findVirtual(FlightSearchService.class, "isFareApplicable",
+                    MethodType.methodType(boolean.class, Fare.class, Flight.class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    private final FlightSearchService service = new FlightSearchService();
+    
+    SearchEngine(SyntheticSchedule schedule) {
+        ReflectionTestUtils.setField(service, "flightRepository", stub(FlightRepository.class, (method, args) -> {
+            if (method.equals("findAll") && args == null) {
+                return schedule.getFlights();
+            }
+            return null;
+        }));
+        ReflectionTestUtils.setField(service, "fareRepository", stub(FareRepository.class, (method, args) -> {
+            if (method.equals("findFaresByAirlineCode")) {
+                return schedule.getFares((String) args[0]);
+            }
+            return null;
+        }));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxTimeoutMs", TIMEOUT_MS);
+        ReflectionTestUtils.invokeMethod(service, "registerMetrics");
+    }
+    
+    FlightSearchService service() {
+        return service;
+    }
+    
+    List<Trip> findDirectTrips(List<Flight> flights, String source, String destination) {
+        return search(FIND_DIRECT, flights, source, destination);
+    }
+    
+    List<Trip> findConnectingTrips(List<Flight> flights, String source, String destination) {
+        return search(FIND_CONNECTING, flights, source, destination);
+    }
+    
+    BigDecimal calculateFarePrice(Flight flight, Airline airline, int legCount) {
+        try {
+            return (BigDecimal) CALCULATE_FARE.invoke(service, flight, airline, legCount);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    boolean isFareApplicable(Fare fare, Flight flight, int legCount) {
+        try {
+            return (boolean) IS_FARE_APPLICABLE.invoke(service, fare, flight, legCount);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private List<Trip> search(MethodHandle phase, List<Flight> flights, String source, String destination) {
+        List<Trip> trips = new ArrayList<>();
+        try {
+            phase.invoke(service, flights, source, destination, null,
+                    SearchDeadline.afterMillis(TIMEOUT_MS), trips, NEW_TALLY.invoke());
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return trips;
+    }
+    
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Object result = answer.answer(method.getName(), args);
+            if (result == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            }
+            return result;
+        });
+    }
+}
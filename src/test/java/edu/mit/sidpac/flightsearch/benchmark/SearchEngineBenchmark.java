@@ -0,0 +1,86 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
+import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import edu.mit.sidpac.flightsearch.dto.Trip;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+import edu.mit.sidpac.flightsearch.entity.FlightAirline;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning search over synthetic schedules: direct and connecting enumeration on their own,
+ * the full searchFlights call, and the final price sort.
+ * Connecting search scans the schedule once per first leg, so the 1M case takes seconds per operation;
+ * narrow it with -p flights=... when iterating.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.args="SearchEngineBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class SearchEngineBenchmark {
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int flights;
+    
+    @Param("42")
+    public long seed;
+    
+    private SearchEngine engine;
+    private List<Flight> schedule;
+    private String source;
+    private String destination;
+    private List<Trip> unsortedTrips;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticSchedule synthetic = SyntheticSchedule.generate(flights, seed);
+        engine = new SearchEngine(synthetic);
+        schedule = synthetic.getFlights();
+        source = synthetic.getAirports().get(0).getCode();
+        destination = synthetic.getAirports().get(1).getCode();
+        
+        // One priced trip per flight, in schedule order
+        Random random = new Random(seed);
+        unsortedTrips = new ArrayList<>(flights);
+        for (Flight flight : schedule) {
+            FlightAirline operator = flight.getFlightAirlines().iterator().next();
+            unsortedTrips.add(new Trip(operator.getAirline().getCode(),
+                    BigDecimal.valueOf(10_000 + random.nextInt(90_000), 2),
+                    List.of(flight), flight.getDurationInMinutes()));
+        }
+    }
+    
+    @Benchmark
+    public List<Trip> directSearch() {
+        return engine.findDirectTrips(schedule, source, destination);
+    }
+    
+    @Benchmark
+    public List<Trip> connectingSearch() {
+        return engine.findConnectingTrips(schedule, source, destination);
+    }
+    
+    @Benchmark
+    public SearchResponse fullSearch() {
+        return engine.service().searchFlights(new SearchRequest(source, destination, null));
+    }
+    
+    @Benchmark
+    public List<Trip> sortTrips() {
+        // Same comparator as FlightSearchService.searchFlights
+        List<Trip> trips = new ArrayList<>(unsortedTrips);
+        trips.sort(Comparator.comparing(Trip::getTotalPrice));
+        return trips;
+    }
+}
@@ -0,0 +1,57 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import edu.mit.sidpac.flightsearch.entity.Airline;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.entity.Fare;
+import edu.mit.sidpac.flightsearch.entity.Flight;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory schedule produced by ScheduleGenerator, for benchmarks that run without a database.
+ */
+public final class SyntheticSchedule {
+
+    private final List<Airport> airports = new ArrayList<>();
+    private final List<Airline> airlines = new ArrayList<>();
+    private final List<Flight> flights = new ArrayList<>();
+    private final Map<String, List<Fare>> faresByAirline = new LinkedHashMap<>();
+
+    SyntheticSchedule() {}
+
+    /**
+     * Hub-and-spoke schedule of exactly flightCount flights, sized by ScheduleGenerator.Options.scaledTo.
+     */
+    public static SyntheticSchedule generate(int flightCount, long seed) {
+        return new ScheduleGenerator(ScheduleGenerator.Options.scaledTo(flightCount, seed)).generate();
+    }
+
+    public List<Airport> getAirports() {
+        return airports;
+    }
+
+    public List<Airline> getAirlines() {
+        return airlines;
+    }
+
+    public List<Flight> getFlights() {
+        return flights;
+    }
+
+    public List<Fare> getFares(String airlineCode) {
+        return faresByAirline.getOrDefault(airlineCode, List.of());
+    }
+
+    public List<Fare> getAllFares() {
+        List<Fare> fares = new ArrayList<>();
+        faresByAirline.values().forEach(fares::addAll);
+        return fares;
+    }
+
+    Map<String, List<Fare>> getFaresByAirline() {
+        return faresByAirline;
+    }
+}
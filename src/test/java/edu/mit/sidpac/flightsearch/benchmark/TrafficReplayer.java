@@ -0,0 +1,297 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.web.CapturedRequest;
+import edu.mit.sidpac.flightsearch.web.TrafficCaptureLog;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Reissues traffic recorded by TrafficCaptureFilter against a running instance and compares it with the capture.
+ * Requests are started open-loop at their captured offsets divided by --speed, or evenly at --rate when given,
+ * paced by OpenLoop like LoadGenerator, so replay latency is measured from the intended start time.
+ * Captured latency is the server-side duration, so the replay column also carries network and client time.
+ * A status mismatch is any differing status; a checksum mismatch is a 2xx response with a different body,
+ * which against the same schedule means the engine returned different results (or a partial, timed-out search).
+ *
+ *   mvn -Pbenchmark test-compile exec:java@replay -Dreplay.args="--dir=./data/capture --speed=2"
+ * Options: --url, --dir (capture directory), --speed (time scale, 2 = twice as fast), --rate (requests/s, overrides
+ * --speed), --limit (first n requests), --max-in-flight, --timeout (seconds), --fail-on-mismatch (true/false).
+ */
+public class TrafficReplayer {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static class Options {
+        public String url = "http://localhost:8080";
+        public Path directory = Path.of("./data/capture");
+        public double speed = 1.0;
+        // Requests per second; 0 keeps the captured timing
+        public double rate = 0;
+        public int limit = 0;
+        public int maxInFlight = 1000;
+        public int timeoutSeconds = 30;
+        public boolean failOnMismatch = false;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "url" -> options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    case "dir" -> options.directory = Path.of(value);
+                    case "speed" -> options.speed = Double.parseDouble(value);
+                    case "rate" -> options.rate = Double.parseDouble(value);
+                    case "limit" -> options.limit = Integer.parseInt(value);
+                    case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                    case "timeout" -> options.timeoutSeconds = Integer.parseInt(value);
+                    case "fail-on-mismatch" -> options.failOnMismatch = Boolean.parseBoolean(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (options.speed <= 0 || options.rate < 0) {
+                throw new IllegalArgumentException("--speed must be positive and --rate not negative");
+            }
+            return options;
+        }
+    }
+
+    private final Options options;
+
+    public TrafficReplayer(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        List<CapturedRequest> captured = read(options.directory);
+        if (options.limit > 0 && captured.size() > options.limit) {
+            captured = captured.subList(0, options.limit);
+        }
+        if (captured.isEmpty()) {
+            throw new IllegalStateException("No captured requests in " + options.directory);
+        }
+
+        Result result = new TrafficReplayer(options).replay(captured);
+        result.print(System.out);
+        if (options.failOnMismatch && result.total().mismatches() > 0) {
+            throw new IllegalStateException("Replay found " + result.total().mismatches() + " mismatching responses");
+        }
+    }
+
+    /**
+     * Reads every capture file in the directory, oldest first, ordered by start time.
+     * Unreadable lines, such as one cut short when the application stopped, are skipped.
+     */
+    public static List<CapturedRequest> read(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(TrafficCaptureLog::isCaptureFile).sorted().toList();
+        }
+        List<CapturedRequest> requests = new ArrayList<>();
+        int skipped = 0;
+        for (Path file : files) {
+            for (String line : Files.readAllLines(file)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    requests.add(JSON.readValue(line, CapturedRequest.class));
+                } catch (JsonProcessingException e) {
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            System.err.println("Skipped " + skipped + " unreadable capture lines in " + directory);
+        }
+        requests.sort((a, b) -> Long.compare(a.startMicros(), b.startMicros()));
+        return requests;
+    }
+
+    public Result replay(List<CapturedRequest> captured) throws InterruptedException {
+        try (OpenLoop loop = new OpenLoop("traffic-replayer", options.maxInFlight, options.timeoutSeconds)) {
+            return offer(loop, captured);
+        }
+    }
+
+    private Result offer(OpenLoop loop, List<CapturedRequest> captured) throws InterruptedException {
+        Result result = new Result();
+        long firstMicros = captured.get(0).startMicros();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < captured.size(); i++) {
+            CapturedRequest request = captured.get(i);
+            long offsetNanos = options.rate > 0
+                    ? (long) (i * TimeUnit.SECONDS.toNanos(1) / options.rate)
+                    : (long) (TimeUnit.MICROSECONDS.toNanos(request.startMicros() - firstMicros) / options.speed);
+            long intended = start + offsetNanos;
+            boolean started = loop.start(intended);
+
+            Stats stats = result.stats(endpoint(request.path()));
+            OpenLoop.record(stats.captured, request.durationMicros());
+            if (!started) {
+                stats.dropped.increment();
+                continue;
+            }
+            loop.client().sendAsync(toHttpRequest(request), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        // Record before releasing, so the final wait for all permits also waits for the stats
+                        stats.record(intended, request, response, error);
+                        loop.finish();
+                    });
+        }
+
+        loop.awaitOutstanding();
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private HttpRequest toHttpRequest(CapturedRequest request) {
+        String target = options.url + request.path() + (request.query() != null ? "?" + request.query() : "");
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(Duration.ofSeconds(options.timeoutSeconds))
+                .method(request.method(), HttpRequest.BodyPublishers.noBody());
+        if (request.accept() != null) {
+            builder.header("Accept", request.accept());
+        }
+        return builder.build();
+    }
+
+    static String endpoint(String path) {
+        if (path.equals("/api/flights/planning")) {
+            return "planning";
+        } else if (path.equals("/api/flights/search")) {
+            return "search";
+        } else if (path.startsWith("/api/flights/airline/")) {
+            return "airline";
+        } else if (path.equals("/api/flights") || path.equals("/api/flights/")) {
+            return "list";
+        } else if (path.startsWith("/api/flights/")) {
+            return "by-id";
+        }
+        return "other";
+    }
+
+    static String checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Captured and replayed latencies and mismatch counts of one endpoint.
+     */
+    public static final class Stats extends OpenLoop.Stats {
+        final Histogram captured = OpenLoop.histogram();
+        final LongAdder statusMismatches = new LongAdder();
+        final LongAdder checksumMismatches = new LongAdder();
+
+        void record(long intendedNanos, CapturedRequest request, HttpResponse<byte[]> response, Throwable error) {
+            recordLatency(intendedNanos);
+            if (error != null) {
+                errors.increment();
+            } else if (response.statusCode() != request.status()) {
+                statusMismatches.increment();
+            } else if (response.statusCode() / 100 == 2 && !checksum(response.body()).equals(request.checksum())) {
+                checksumMismatches.increment();
+            }
+        }
+
+        public long requests() {
+            return captured.getTotalCount();
+        }
+
+        /**
+         * Requests that did not reproduce the captured response, including ones that failed or were dropped.
+         */
+        public long mismatches() {
+            return errors.sum() + dropped.sum() + statusMismatches.sum() + checksumMismatches.sum();
+        }
+
+        public long getStatusMismatches() {
+            return statusMismatches.sum();
+        }
+
+        public long getChecksumMismatches() {
+            return checksumMismatches.sum();
+        }
+
+        public Histogram getCaptured() {
+            return captured;
+        }
+
+        public Histogram getReplayed() {
+            return latency;
+        }
+    }
+
+    /**
+     * Per-endpoint comparison of a replay.
+     */
+    public static final class Result {
+        private final Map<String, Stats> stats = new TreeMap<>();
+        long elapsedNanos;
+
+        synchronized Stats stats(String endpoint) {
+            return stats.computeIfAbsent(endpoint, key -> new Stats());
+        }
+
+        public synchronized Map<String, Stats> getStats() {
+            return Map.copyOf(stats);
+        }
+
+        public Stats total() {
+            Stats total = new Stats();
+            for (Stats endpoint : getStats().values()) {
+                total.add(endpoint);
+                total.captured.add(endpoint.captured);
+                total.statusMismatches.add(endpoint.statusMismatches.sum());
+                total.checksumMismatches.add(endpoint.checksumMismatches.sum());
+            }
+            return total;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(Locale.ROOT, "Replayed %d requests in %.1f s%n%n", total().requests(), elapsedNanos / 1e9);
+            out.println("| endpoint | requests | captured p50 ms | replay p50 ms | captured p99 ms | replay p99 ms "
+                    + "| errors | dropped | status mismatches | checksum mismatches |");
+            out.println("|---|---:|---:|---:|---:|---:|---:|---:|---:|---:|");
+            new TreeMap<>(getStats()).forEach((endpoint, measured) -> printRow(out, endpoint, measured));
+            printRow(out, "all", total());
+            out.println();
+            out.println(total().mismatches() == 0 ? "MATCH" : "MISMATCH: " + total().mismatches() + " requests");
+        }
+
+        private void printRow(PrintStream out, String name, Stats measured) {
+            out.printf(Locale.ROOT, "| %s | %d | %.1f | %.1f | %.1f | %.1f | %d | %d | %d | %d |%n",
+                    name, measured.requests(),
+                    measured.captured.getValueAtPercentile(50) / 1000.0, measured.percentileMillis(50),
+                    measured.captured.getValueAtPercentile(99) / 1000.0, measured.percentileMillis(99),
+                    measured.errors.sum(), measured.dropped.sum(),
+                    measured.statusMismatches.sum(), measured.checksumMismatches.sum());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package edu.mit.sidpac.flightsearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.mit.sidpac.flightsearch.web.CapturedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TrafficReplayer
+ * Replays a small capture against an in-process stub server and checks timing, headers and mismatch detection
+ */
+class TrafficReplayerTest {
+
+    private static final String SEARCH_BODY = "{\"trips\":[],\"totalResults\":0}";
+
+    @TempDir
+    Path directory;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        received.add(exchange.getRequestURI() + " " + exchange.getRequestHeaders().getFirst("Accept"));
+        if (path.equals("/api/flights/search")) {
+            respond(exchange, 200, SEARCH_BODY);
+        } else if (path.equals("/api/flights/planning")) {
+            respond(exchange, 503, "");
+        } else {
+            respond(exchange, 200, "{\"id\":\"changed\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Test: Matching responses pass, while a changed status or body is reported per endpoint
+     */
+    @Test
+    void testReplay_DetectsMismatches() throws Exception {
+        String searchChecksum = TrafficReplayer.checksum(SEARCH_BODY.getBytes(StandardCharsets.UTF_8));
+        writeCapture("traffic-0000000000001-0000.ndjson",
+                new CapturedRequest(1_000_000, "GET", "/api/flights/search", "source=BOS&destination=LAX",
+                        "application/json", 200, 5_000, SEARCH_BODY.length(), searchChecksum),
+                new CapturedRequest(1_100_000, "GET", "/api/flights/abc", null, null, 200, 2_000, 20, "deadbeef"));
+        writeCapture("traffic-0000000000002-0001.ndjson",
+                new CapturedRequest(1_200_000, "GET", "/api/flights/planning", "sourceAirport=BOS&destinationAirport=LAX",
+                        null, 200, 80_000, 100, "0"));
+
+        List<CapturedRequest> captured = TrafficReplayer.read(directory);
+        assertEquals(3, captured.size());
+
+        TrafficReplayer.Options options = TrafficReplayer.Options.parse(new String[]{
+                "--url=http://127.0.0.1:" + server.getAddress().getPort(), "--speed=10"});
+        TrafficReplayer.Result result = new TrafficReplayer(options).replay(captured);
+
+        assertTrue(received.contains("/api/flights/search?source=BOS&destination=LAX application/json"),
+                "Query and Accept header should be replayed, got " + received);
+        TrafficReplayer.Stats search = result.getStats().get("search");
+        assertEquals(1, search.requests());
+        assertEquals(0, search.mismatches());
+        assertEquals(1, result.getStats().get("by-id").getChecksumMismatches());
+        assertEquals(1, result.getStats().get("planning").getStatusMismatches());
+        assertEquals(2, result.total().mismatches());
+
+        // The captured requests were 200 ms apart in total; at ten times the speed that is 20 ms
+        assertTrue(result.elapsedNanos >= 20_000_000, "Replay should keep the captured spacing");
+    }
+
+    /**
+     * Test: A line cut short by a crash is skipped and the rest of the capture is still read
+     */
+    @Test
+    void testRead_SkipsTruncatedLine() throws Exception {
+        writeCapture("traffic-0000000000001-0000.ndjson",
+                new CapturedRequest(2, "GET", "/api/flights/b", null, null, 200, 1, 1, "0"),
+                new CapturedRequest(1, "GET", "/api/flights/a", null, null, 200, 1, 1, "0"));
+        Files.writeString(directory.resolve("traffic-0000000000001-0000.ndjson"), "{\"startMicros\":3,\"meth",
+                StandardOpenOption.APPEND);
+        Files.writeString(directory.resolve("notes.txt"), "not a capture file");
+
+        List<CapturedRequest> captured = TrafficReplayer.read(directory);
+        assertEquals(List.of("/api/flights/a", "/api/flights/b"), captured.stream().map(CapturedRequest::path).toList());
+    }
+
+    private void writeCapture(String name, CapturedRequest... requests) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        StringBuilder lines = new StringBuilder();
+        for (CapturedRequest request : requests) {
+            lines.append(mapper.writeValueAsString(request)).append('\n');
+        }
+        Files.writeString(directory.resolve(name), lines);
+    }
+}
@@ -5,7 +5,9 @@ import edu.mit.sidpac.flightsearch.config.TestSecurityConfig;
 import edu.mit.sidpac.flightsearch.dto.AuthRequest;
 import edu.mit.sidpac.flightsearch.dto.AuthResponse;
 import edu.mit.sidpac.flightsearch.dto.RegisterRequest;
+import edu.mit.sidpac.flightsearch.exception.PasswordHashingBusyException;
 import edu.mit.sidpac.flightsearch.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
@@ -35,7 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class,
         org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration.class
     })
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, SimpleMeterRegistry.class})
 @ActiveProfiles("test")
 class AuthControllerTest {
 
@@ -55,6 +57,12 @@ class AuthControllerTest {
     @MockBean
     private edu.mit.sidpac.flightsearch.service.UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private edu.mit.sidpac.flightsearch.security.SessionCache sessionCache;
+
+    @MockBean
+    private edu.mit.sidpac.flightsearch.web.TrafficCaptureLog trafficCaptureLog;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -124,6 +132,26 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Test: Login while password hashing is saturated
+     * Verifies that overload is reported as a retryable 503 rather than bad credentials
+     */
+    @Test
+    void testLogin_HashingSaturated() throws Exception {
+        // Given: The password hashing pool rejects the request
+        AuthRequest request = new AuthRequest("admin", "admin123");
+        
+        when(authService.login(any(AuthRequest.class)))
+                .thenThrow(new PasswordHashingBusyException("Password hashing queue is full"));
+
+        // When & Then: Login should be rejected with 503 and Retry-After
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     /**
      * Test: Login with non-existent user
      * Verifies that the system handles non-existent users gracefully
@@ -5,6 +5,7 @@ import edu.mit.sidpac.flightsearch.dto.AuthRequest;
 import edu.mit.sidpac.flightsearch.entity.*;
 import edu.mit.sidpac.flightsearch.repository.*;
 import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.service.FlightExportService;
 import edu.mit.sidpac.flightsearch.util.TestDatabaseSetup;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -68,6 +69,9 @@ class FlightSearchIntegrationTest {
     @Autowired
     private TestDatabaseSetup testDatabaseSetup;
 
+    @Autowired
+    private FlightExportService flightExportService;
+
     private String superAdminToken;
     private String aaAdminToken;
     private String dlAdminToken;
@@ -112,6 +116,65 @@ class FlightSearchIntegrationTest {
                 .andExpect(jsonPath("$.trips[0].legs").isArray());
     }
 
+    /**
+     * Test: Compact search response projection
+     * Verifies that legs are flat records and airports/airlines live in shared dictionaries
+     * Tests that full Flight entities are no longer serialized in trips
+     */
+    @Test
+    void testFlightSearch_CompactResponseProjection() throws Exception {
+        mockMvc.perform(get("/api/flights/planning")
+                .param("sourceAirport", "BOS")
+                .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trips[0].flights").doesNotExist())
+                .andExpect(jsonPath("$.trips[0].legs[0].flightNumber").exists())
+                .andExpect(jsonPath("$.trips[0].legs[0].sourceAirportCode").value("BOS"))
+                .andExpect(jsonPath("$.trips[0].legs[0].airlineCodes").isArray())
+                .andExpect(jsonPath("$.trips[0].legs[0].sourceAirport").doesNotExist())
+                .andExpect(jsonPath("$.airports.BOS.city").value("Boston"))
+                .andExpect(jsonPath("$.airports.LAX.name").value("Los Angeles International Airport"))
+                .andExpect(jsonPath("$.airlines").isMap());
+    }
+
+    /**
+     * Test: Binary response encodings via content negotiation
+     * Verifies that CBOR and Smile are selected by the Accept header and JSON stays the default
+     * Tests that binary payloads decode to the same search result as JSON
+     */
+    @Test
+    void testFlightSearch_BinaryEncodings() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/flights/planning")
+                .param("sourceAirport", "BOS")
+                .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] cbor = mockMvc.perform(get("/api/flights/planning")
+                .param("sourceAirport", "BOS")
+                .param("destinationAirport", "LAX")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] smile = mockMvc.perform(get("/api/flights")
+                .accept(new MediaType("application", "x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(new MediaType("application", "x-jackson-smile")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var jsonTree = objectMapper.readTree(json);
+        var cborTree = new ObjectMapper(new com.fasterxml.jackson.dataformat.cbor.CBORFactory()).readTree(cbor);
+        var smileTree = new ObjectMapper(new com.fasterxml.jackson.dataformat.smile.SmileFactory()).readTree(smile);
+
+        assertEquals(jsonTree.get("totalResults"), cborTree.get("totalResults"), "CBOR should carry the same result");
+        assertEquals(jsonTree.get("trips").size(), cborTree.get("trips").size());
+        assertTrue(cbor.length < json.length, "CBOR payload should be smaller than JSON");
+        assertTrue(smileTree.isArray() && smileTree.size() > 0, "Smile flight list should decode");
+    }
+
     /**
      * Test: Flight search with specific departure time
      * Verifies that time-based filtering works correctly
@@ -163,6 +226,105 @@ class FlightSearchIntegrationTest {
                 .andExpect(jsonPath("$[0].destinationAirportCode").exists());
     }
 
+    /**
+     * Test: Unpaged flight listing
+     * Verifies that a request without size or cursor returns every flight and no next-page headers
+     */
+    @Test
+    void testGetAllFlights_UnpagedReturnsWholeSchedule() throws Exception {
+        mockMvc.perform(get("/api/flights"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value((int) flightRepository.count()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist("Link"));
+
+        mockMvc.perform(get("/api/flights").param("sort", "departureTime,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].flightNumber").value("AA456"));
+    }
+
+    /**
+     * Test: Keyset pagination of the flight listing
+     * Verifies that following X-Next-Cursor visits every flight once in (departureTime, id) order
+     * Tests page size, descending sort and rejection of malformed cursors
+     */
+    @Test
+    void testGetAllFlights_KeysetPagination() throws Exception {
+        List<String> seenIds = new java.util.ArrayList<>();
+        LocalDateTime previousDeparture = null;
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/flights").param("size", "5");
+            if (cursor != null) {
+                request = request.param("cursor", cursor);
+            }
+            var response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(lessThanOrEqualTo(5)))
+                    .andReturn().getResponse();
+
+            for (var flight : objectMapper.readTree(response.getContentAsString())) {
+                LocalDateTime departure = LocalDateTime.parse(flight.get("departureTime").asText());
+                assertTrue(previousDeparture == null || !departure.isBefore(previousDeparture), "Flights should be ordered by departure time");
+                previousDeparture = departure;
+                seenIds.add(flight.get("id").asText());
+            }
+            cursor = response.getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertEquals(flightRepository.count(), seenIds.size(), "Every flight should be listed exactly once");
+        assertEquals(seenIds.size(), new java.util.HashSet<>(seenIds).size(), "No flight should appear on two pages");
+        assertEquals(4, pages, "18 flights at 5 per page should take 4 pages");
+
+        mockMvc.perform(get("/api/flights").param("size", "1").param("sort", "departureTime,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].flightNumber").value("AA456"))
+                .andExpect(header().exists("Link"));
+
+        mockMvc.perform(get("/api/flights").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test: Schedule export streams every flight once, in departure order, as NDJSON or CSV
+     */
+    @Test
+    void testExportFlights_Streaming() throws Exception {
+        // The HTTP body is written on an async thread outside the test transaction, so the
+        // rows themselves are checked through the service and the endpoint for its contract
+        mockMvc.perform(get("/api/flights/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("Content-Disposition", containsString("flights.csv")));
+
+        mockMvc.perform(get("/api/flights/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        var ndjson = new java.io.ByteArrayOutputStream();
+        long exported = flightExportService.export(FlightExportService.Format.NDJSON, null, null, null, ndjson);
+        String[] lines = ndjson.toString(java.nio.charset.StandardCharsets.UTF_8).strip().split("\n");
+        assertEquals(flightRepository.count(), exported, "Every flight should be exported exactly once");
+        assertEquals(exported, lines.length);
+        LocalDateTime previousDeparture = null;
+        for (String line : lines) {
+            var leg = objectMapper.readTree(line);
+            LocalDateTime departure = LocalDateTime.parse(leg.get("departureTime").asText());
+            assertTrue(previousDeparture == null || !departure.isBefore(previousDeparture), "Export should be ordered by departure time");
+            assertFalse(leg.get("airlineCodes").isEmpty(), "Each flight should carry its airline codes");
+            previousDeparture = departure;
+        }
+
+        var csv = new java.io.ByteArrayOutputStream();
+        flightExportService.export(FlightExportService.Format.CSV, "AA", null, null, csv);
+        String[] rows = csv.toString(java.nio.charset.StandardCharsets.UTF_8).strip().split("\n");
+        assertTrue(rows[0].startsWith("id,flightNumber"), "CSV export should start with a header row");
+        assertEquals(flightRepository.findFlightsByAirline("AA").size(), rows.length - 1);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(rows[i].endsWith("AA") || rows[i].contains("AA "), "Airline filter should only export AA flights");
+        }
+    }
+
     /**
      * Test: Get flights by airline code
      * Verifies that airline-specific flight filtering works
@@ -254,6 +416,103 @@ class FlightSearchIntegrationTest {
                 .andExpect(jsonPath("$.destinationAirportCode").value("LAX"));
     }
 
+    /**
+     * Test: Bulk ingestion inserts valid rows and reports the rest without aborting the load
+     */
+    @Test
+    void testBulkCreateFlights_ReportsRowErrors() throws Exception {
+        if (superAdminToken == null || aaAdminToken == null) return;
+
+        long before = flightRepository.count();
+        String departure = LocalDateTime.now().plusDays(30).withNano(0).toString();
+        String arrival = LocalDateTime.now().plusDays(30).plusHours(6).withNano(0).toString();
+        String ndjson = String.join("\n",
+                "{\"flightNumber\":\"BLK1\",\"sourceAirportCode\":\"BOS\",\"destinationAirportCode\":\"LAX\",\"departureTime\":\"" + departure + "\",\"arrivalTime\":\"" + arrival + "\",\"airlineCodes\":[\"AA\",\"DL\"]}",
+                "{\"flightNumber\":\"BLK2\",\"sourceAirportCode\":\"XXX\",\"destinationAirportCode\":\"LAX\",\"departureTime\":\"" + departure + "\",\"arrivalTime\":\"" + arrival + "\",\"airlineCodes\":[\"AA\"]}",
+                "not json",
+                "{\"flightNumber\":\"BLK3\",\"sourceAirportCode\":\"BOS\",\"destinationAirportCode\":\"LAX\",\"departureTime\":\"2020-01-01T10:00:00\",\"arrivalTime\":\"2020-01-01T16:00:00\",\"airlineCodes\":[\"AA\"]}");
+
+        mockMvc.perform(post("/api/flights/bulk")
+                .header("X-Session-ID", superAdminToken)
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(4))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("XXX")));
+
+        assertEquals(before + 1, flightRepository.count());
+        assertEquals(2, flightRepository.findFlightsByAirline("DL").stream()
+                .filter(flight -> flight.getFlightNumber().equals("BLK1"))
+                .findFirst().orElseThrow().getFlightAirlines().size());
+
+        // Airline admins may only load flights for their own airline
+        String csv = "flightNumber,sourceAirportCode,destinationAirportCode,departureTime,arrivalTime,airlineCodes\n"
+                + "BLK4,BOS,LAX," + departure + "," + arrival + ",AA\n"
+                + "BLK5,BOS,LAX," + departure + "," + arrival + ",DL\n";
+
+        mockMvc.perform(post("/api/flights/bulk")
+                .header("X-Session-ID", aaAdminToken)
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value(containsString("DL")));
+
+        mockMvc.perform(post("/api/flights/bulk")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Test: Fare catalog import replaces an airline's tariff as a whole, or not at all
+     */
+    @Test
+    void testReplaceFareCatalog_AllOrNothing() throws Exception {
+        if (superAdminToken == null || aaAdminToken == null) return;
+
+        int dlFares = fareRepository.findFaresByAirlineCode("DL").size();
+        String tariff = String.join("\n",
+                "{\"fareName\":\"Saver\",\"basePrice\":\"149.00\",\"restrictions\":[{\"type\":\"DEPARTURE_TIME\",\"value\":\"10:00\"}]}",
+                "{\"fareName\":\"Flex\",\"basePrice\":\"399.00\",\"description\":\"Fully refundable\"}");
+
+        mockMvc.perform(put("/api/fares/airline/AA")
+                .header("X-Session-ID", aaAdminToken)
+                .contentType("application/x-ndjson")
+                .content(tariff))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2));
+
+        List<Fare> aaFares = fareRepository.findFaresByAirlineCode("AA");
+        assertEquals(2, aaFares.size(), "Old AA fares should be replaced by the imported tariff");
+        Fare saver = aaFares.stream().filter(fare -> fare.getFareName().equals("Saver")).findFirst().orElseThrow();
+        assertEquals(1, saver.getRestrictions().size());
+        assertEquals(dlFares, fareRepository.findFaresByAirlineCode("DL").size(), "Other airlines' fares must be untouched");
+
+        // One bad restriction rejects the whole file and keeps the current catalog
+        String csv = "fareName,basePrice,description,restrictions\n"
+                + "Hub Special,99.00,,ENDPOINT=BOS\n"
+                + "Broken,129.00,,MULTI_LEG=two\n";
+        mockMvc.perform(put("/api/fares/airline/AA")
+                .header("X-Session-ID", superAdminToken)
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+        assertEquals(2, fareRepository.findFaresByAirlineCode("AA").size());
+
+        mockMvc.perform(put("/api/fares/airline/DL")
+                .header("X-Session-ID", aaAdminToken)
+                .contentType("application/x-ndjson")
+                .content(tariff))
+                .andExpect(status().isForbidden());
+    }
+
     /**
      * Test: Airline admin can only create flights for their assigned airline
      * Verifies that airline-specific admins are restricted to their airline
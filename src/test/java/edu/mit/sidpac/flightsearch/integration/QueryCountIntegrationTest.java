@@ -0,0 +1,181 @@
+package edu.mit.sidpac.flightsearch.integration;
+
+import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
+import edu.mit.sidpac.flightsearch.dto.AuthRequest;
+import edu.mit.sidpac.flightsearch.repository.AirlineRepository;
+import edu.mit.sidpac.flightsearch.repository.AirportRepository;
+import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.util.TestDatabaseSetup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per read endpoint.
+ * Each test starts from an empty persistence context, so every association the endpoint touches
+ * has to come from its fetch plan; a lazy collection loaded row by row shows up as extra statements.
+ * The HTTP read cases run outside the test transaction, as requests do in production (open-in-view is off),
+ * so a lazy association touched during serialization fails instead of loading; their data is committed
+ * and cleared after each test.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@Import(TestJpaAuditingConfig.class)
+class QueryCountIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDatabaseSetup testDatabaseSetup;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private AirlineRepository airlineRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    private Statistics statistics;
+
+    private String flightId;
+
+    @BeforeEach
+    void setUp() {
+        testDatabaseSetup.loadFullDatabaseData();
+        flightId = flightRepository.findDirectFlights("BOS", "LAX").get(0).getId();
+
+        if (TestTransaction.isActive()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!TestTransaction.isActive()) {
+            testDatabaseSetup.clearDatabaseData();
+        }
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void listFlightsPage_UsesPageQueryPlusOneBatchForCodeshares() throws Exception {
+        mockMvc.perform(get("/api/flights").param("size", "10"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, statements(), "Page query plus one batch load of flight_airlines");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void getFlightById_IsSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/flights/" + flightId))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statements());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void flightsByAirline_DoesNotLoadPerFlight() throws Exception {
+        mockMvc.perform(get("/api/flights/airline/AA"))
+                .andExpect(status().isOk());
+
+        assertEquals(2, statements(), "Airline existence check plus one fetch-planned query");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void routeSearch_IsSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/flights/search").param("source", "BOS").param("destination", "LAX"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statements());
+    }
+
+    @Test
+    void referenceLookups_DoNotPullInFlightsOrFares() {
+        airportRepository.findByCode("BOS").orElseThrow();
+        airlineRepository.findByCode("AA").orElseThrow();
+
+        assertEquals(2, statements(), "Airport and airline lookups must not cascade into their collections");
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void planningSearch_HasNoSecondarySelects() throws Exception {
+        mockMvc.perform(get("/api/flights/planning")
+                .param("sourceAirport", "BOS")
+                .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk());
+
+        long scheduleLoads = statistics.getEntityStatistics("edu.mit.sidpac.flightsearch.entity.Flight").getLoadCount();
+        assertTrue(scheduleLoads > 0);
+        assertEquals(0, statistics.getCollectionFetchCount(),
+                "Codeshares and fare restrictions should arrive through their fetch plans, not lazy loads");
+        assertEquals(statistics.getQueryExecutionCount(), statements(),
+                "Every statement should be a repository query; no secondary selects for airports or airlines");
+    }
+
+    @Test
+    void authenticatedWrite_CostsNoAuthQueriesOnceSessionIsCached() throws Exception {
+        String token = authService.login(new AuthRequest("admin", "password123")).getToken();
+        entityManager.flush();
+        entityManager.clear();
+
+        // First authenticated request resolves the session from the database
+        mockMvc.perform(get("/api/flights/" + flightId).header("X-Session-ID", token))
+                .andExpect(status().isOk());
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(delete("/api/flights/" + flightId).header("X-Session-ID", token))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        assertEquals(0, statistics.getEntityStatistics("edu.mit.sidpac.flightsearch.entity.UserSession").getLoadCount(),
+                "Session should come from the session cache");
+        assertEquals(0, statistics.getEntityStatistics("edu.mit.sidpac.flightsearch.entity.User").getLoadCount(),
+                "Current user should come from the cached principal");
+    }
+}
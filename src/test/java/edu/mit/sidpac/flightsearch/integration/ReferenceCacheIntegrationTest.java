@@ -0,0 +1,118 @@
+package edu.mit.sidpac.flightsearch.integration;
+
+import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
+import edu.mit.sidpac.flightsearch.dto.CacheRegionStats;
+import edu.mit.sidpac.flightsearch.entity.Airport;
+import edu.mit.sidpac.flightsearch.repository.AirportRepository;
+import edu.mit.sidpac.flightsearch.service.ReferenceCacheService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Second-level cache behaviour for reference data.
+ * Not @Transactional: cache entries are only published once the writing transaction commits,
+ * so this test commits its own airport and removes it afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestJpaAuditingConfig.class)
+class ReferenceCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AirportRepository airportRepository;
+
+    @Autowired
+    private ReferenceCacheService referenceCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status ->
+                airportRepository.save(new Airport("ZZC", "Cache Test Field", "Nowhere", "USA")));
+        referenceCacheService.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status ->
+                airportRepository.findByCode("ZZC").ifPresent(airportRepository::delete));
+    }
+
+    @Test
+    void findByCode_IsServedFromCacheAfterFirstLookup() {
+        transaction.executeWithoutResult(status -> airportRepository.findByCode("ZZC").orElseThrow());
+        long afterFirstLookup = statistics.getPrepareStatementCount();
+
+        String id = transaction.execute(status -> airportRepository.findByCode("ZZC").orElseThrow().getId());
+        transaction.executeWithoutResult(status -> airportRepository.findById(id).orElseThrow());
+
+        assertEquals(afterFirstLookup, statistics.getPrepareStatementCount(), "Repeat lookups should not hit the database");
+        CacheRegionStats airports = referenceCacheService.getStats().get(ReferenceCacheService.AIRPORTS_REGION);
+        CacheRegionStats queries = referenceCacheService.getStats().get(ReferenceCacheService.QUERY_REGION);
+        assertTrue(queries.hits() >= 1, "findByCode result should come from the query cache");
+        assertTrue(airports.hits() >= 1, "findById should come from the airports region");
+        assertTrue(airports.hitRatio() > 0.0);
+    }
+
+    @Test
+    void updatesThroughHibernate_AreVisibleToLaterLookups() {
+        transaction.executeWithoutResult(status -> airportRepository.findByCode("ZZC").orElseThrow());
+
+        transaction.executeWithoutResult(status -> {
+            Airport airport = airportRepository.findByCode("ZZC").orElseThrow();
+            airport.setName("Renamed Field");
+        });
+
+        String name = transaction.execute(status -> airportRepository.findByCode("ZZC").orElseThrow().getName());
+        assertEquals("Renamed Field", name);
+    }
+
+    @Test
+    void evictAll_ForcesReload() {
+        transaction.executeWithoutResult(status -> airportRepository.findByCode("ZZC").orElseThrow());
+        referenceCacheService.evictAll();
+        long beforeLookup = statistics.getPrepareStatementCount();
+
+        transaction.executeWithoutResult(status -> airportRepository.findByCode("ZZC").orElseThrow());
+
+        assertTrue(statistics.getPrepareStatementCount() > beforeLookup, "Evicted entries should be reloaded from the database");
+    }
+
+    @Test
+    void cacheEndpoints_RequireAdmin() throws Exception {
+        mockMvc.perform(get("/api/admin/cache"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,227 @@
+package edu.mit.sidpac.flightsearch.integration;
+
+import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
+import edu.mit.sidpac.flightsearch.dto.AuthRequest;
+import edu.mit.sidpac.flightsearch.repository.FlightRepository;
+import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.util.TestDatabaseSetup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-request allocation and SQL statement budgets for the hot endpoints, checked in as request-budgets.properties.
+ * MockMvc runs the whole request (filters, controller, JSON) on the test thread, so the thread's allocated
+ * bytes cover it end to end. Each endpoint is warmed up first and the smallest allocation of the measured
+ * runs is compared, which keeps JIT and cache warm-up out of the number. The test profile's SQL and security
+ * debug logging is turned down here, since formatting log lines would otherwise dominate the allocation.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.edu.mit.sidpac.flightsearch=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Transactional
+@Import(TestJpaAuditingConfig.class)
+class RequestBudgetIntegrationTest {
+
+    private static final int WARMUP_REQUESTS = 20;
+    private static final int MEASURED_REQUESTS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties budgets;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDatabaseSetup testDatabaseSetup;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    private Statistics statistics;
+
+    private String flightId;
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        budgets = new Properties();
+        try (InputStream in = RequestBudgetIntegrationTest.class.getResourceAsStream("/request-budgets.properties")) {
+            assertNotNull(in, "request-budgets.properties should be on the test classpath");
+            budgets.load(in);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled(),
+                "Per-thread allocation counters are not available on this JVM");
+
+        testDatabaseSetup.loadFullDatabaseData();
+        flightId = flightRepository.findDirectFlights("BOS", "LAX").get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private record Usage(long allocatedBytes, long statements) {
+    }
+
+    /**
+     * Runs the request until warm, then returns the smallest allocation and the largest statement count
+     * seen over the measured runs. Writes are flushed inside the measurement so their statements count.
+     */
+    private Usage measure(RequestBuilder request, ResultMatcher expectedStatus) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            mockMvc.perform(request).andExpect(expectedStatus);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        long allocatedBytes = Long.MAX_VALUE;
+        long statements = 0;
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            statistics.clear();
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            mockMvc.perform(request).andExpect(expectedStatus);
+            entityManager.flush();
+            allocatedBytes = Math.min(allocatedBytes, THREADS.getCurrentThreadAllocatedBytes() - before);
+            statements = Math.max(statements, statistics.getPrepareStatementCount());
+            entityManager.clear();
+        }
+        return new Usage(allocatedBytes, statements);
+    }
+
+    private void assertWithinBudget(String endpoint, Usage usage) {
+        long byteBudget = budget(endpoint + ".allocated-bytes");
+        long statementBudget = budget(endpoint + ".statements");
+        String measured = String.format("%s measured %d bytes allocated, %d statements",
+                endpoint, usage.allocatedBytes(), usage.statements());
+
+        assertAll(measured,
+                () -> assertTrue(usage.statements() <= statementBudget, String.format(
+                        "%s issued %d SQL statements, budget is %d", endpoint, usage.statements(), statementBudget)),
+                () -> assertTrue(usage.allocatedBytes() <= byteBudget, String.format(
+                        "%s allocated %d bytes, budget is %d", endpoint, usage.allocatedBytes(), byteBudget)));
+    }
+
+    private static long budget(String key) {
+        String value = budgets.getProperty(key);
+        assertNotNull(value, "No budget for " + key + " in request-budgets.properties");
+        return Long.parseLong(value.trim());
+    }
+
+    private String login() {
+        return authService.login(new AuthRequest("admin", "password123")).getToken();
+    }
+
+    private static String flightJson(String flightNumber, LocalDateTime departure) {
+        return String.format("""
+                {
+                    "flightNumber": "%s",
+                    "sourceAirportCode": "BOS",
+                    "destinationAirportCode": "LAX",
+                    "departureTime": "%s",
+                    "arrivalTime": "%s",
+                    "airlineCodes": ["AA"]
+                }
+                """, flightNumber, departure, departure.plusHours(6));
+    }
+
+    @Test
+    void planningSearch_StaysWithinBudget() throws Exception {
+        Usage usage = measure(get("/api/flights/planning")
+                .param("sourceAirport", "BOS")
+                .param("destinationAirport", "LAX"), status().isOk());
+
+        assertWithinBudget("planning", usage);
+    }
+
+    @Test
+    void routeSearch_StaysWithinBudget() throws Exception {
+        Usage usage = measure(get("/api/flights/search")
+                .param("source", "BOS")
+                .param("destination", "LAX"), status().isOk());
+
+        assertWithinBudget("search", usage);
+    }
+
+    @Test
+    void getFlightById_StaysWithinBudget() throws Exception {
+        Usage usage = measure(get("/api/flights/" + flightId), status().isOk());
+
+        assertWithinBudget("flight-by-id", usage);
+    }
+
+    @Test
+    void authenticatedCreate_StaysWithinBudget() throws Exception {
+        String token = login();
+        LocalDateTime departure = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.MINUTES);
+
+        Usage usage = measure(post("/api/flights")
+                .header("X-Session-ID", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(flightJson("AA900", departure)), status().isCreated());
+
+        assertWithinBudget("create-flight", usage);
+    }
+
+    @Test
+    void authenticatedUpdate_StaysWithinBudget() throws Exception {
+        String token = login();
+        LocalDateTime departure = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.MINUTES);
+
+        Usage usage = measure(put("/api/flights/" + flightId)
+                .header("X-Session-ID", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(flightJson("AA123", departure)), status().isOk());
+
+        assertWithinBudget("update-flight", usage);
+    }
+}
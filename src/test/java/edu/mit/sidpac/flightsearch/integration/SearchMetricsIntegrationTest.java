@@ -0,0 +1,216 @@
+package edu.mit.sidpac.flightsearch.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
+import edu.mit.sidpac.flightsearch.dto.AuthRequest;
+import edu.mit.sidpac.flightsearch.service.AuthService;
+import edu.mit.sidpac.flightsearch.service.SlowSearchRecorder;
+import edu.mit.sidpac.flightsearch.util.TestDatabaseSetup;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Search phase and repository meters recorded by a planning search.
+ * Meters are shared by the whole test context, so assertions compare against values taken before the request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@Import(TestJpaAuditingConfig.class)
+class SearchMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDatabaseSetup testDatabaseSetup;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SlowSearchRecorder slowSearchRecorder;
+
+    @Autowired
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        testDatabaseSetup.loadFullDatabaseData();
+    }
+
+    private long phaseCount(String phase) {
+        return meterRegistry.get("flight.search.phase").tag("phase", phase).timer().count();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    /**
+     * Test: A planning search records every phase once and counts its candidates, fares and results
+     */
+    @Test
+    void testPlanningSearch_RecordsPhaseMetrics() throws Exception {
+        String[] phases = {"load_schedule", "direct", "connecting", "fare_evaluation", "sort"};
+        long[] before = new long[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            before[i] = phaseCount(phases[i]);
+        }
+        double candidates = counter("flight.search.candidates");
+        double fares = counter("flight.search.fares_evaluated");
+        double results = counter("flight.search.results");
+        long searches = meterRegistry.get("flight.search.duration").tag("outcome", "complete").timer().count();
+
+        mockMvc.perform(get("/api/flights/planning")
+                        .param("sourceAirport", "BOS")
+                        .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk());
+
+        for (int i = 0; i < phases.length; i++) {
+            assertEquals(before[i] + 1, phaseCount(phases[i]), phases[i]);
+        }
+        assertTrue(counter("flight.search.candidates") > candidates);
+        assertTrue(counter("flight.search.fares_evaluated") > fares);
+        assertTrue(counter("flight.search.results") > results);
+        assertEquals(searches + 1, meterRegistry.get("flight.search.duration").tag("outcome", "complete").timer().count());
+    }
+
+    /**
+     * Test: Repository calls made by the search are timed per repository and method
+     */
+    @Test
+    void testPlanningSearch_TimesRepositoryMethods() throws Exception {
+        mockMvc.perform(get("/api/flights/planning")
+                        .param("sourceAirport", "BOS")
+                        .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk());
+
+        Timer findAll = meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "FlightRepository")
+                .tag("method", "findAll")
+                .timer();
+        Timer fareLookup = meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "FareRepository")
+                .tag("method", "findFaresByAirlineCode")
+                .timer();
+
+        assertNotNull(findAll);
+        assertNotNull(fareLookup);
+        assertTrue(findAll.count() > 0);
+        assertTrue(fareLookup.count() > 0);
+    }
+
+    /**
+     * Test: A planning search records the per-request meters for its route without exposing them in Server-Timing
+     */
+    @Test
+    void testPlanningSearch_RecordsRequestCost() throws Exception {
+        String timing = mockMvc.perform(get("/api/flights/planning")
+                        .param("sourceAirport", "BOS")
+                        .param("destinationAirport", "SEA"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("Server-Timing");
+
+        assertNull(timing, "Server-Timing should be off unless explicitly enabled");
+        DistributionSummary statements = meterRegistry.get("flight.search.request.statements")
+                .tags("method", "GET", "uri", "/api/flights/planning", "caller", "anonymous")
+                .summary();
+        assertTrue(statements.count() > 0);
+        assertTrue(statements.totalAmount() > 0, "Hibernate statements should be counted against the request");
+    }
+
+    /**
+     * Test: explain=true returns a profile whose fare lookups match the candidates counted by the meters
+     */
+    @Test
+    void testPlanningSearch_ExplainReturnsProfile() throws Exception {
+        double candidates = counter("flight.search.candidates");
+
+        String body = mockMvc.perform(get("/api/flights/planning")
+                        .param("sourceAirport", "BOS")
+                        .param("destinationAirport", "LAX")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.searchCriteria.explain").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode profile = objectMapper.readTree(body).path("profile");
+        for (String phase : new String[] {"load_schedule", "direct", "connecting", "sort", "fare_evaluation"}) {
+            assertTrue(profile.path("phaseMillis").has(phase), phase);
+        }
+        assertTrue(profile.path("flightsLoaded").asInt() > 0);
+        assertTrue(profile.path("directCandidates").asInt() > 0);
+        assertTrue(profile.path("firstLegCandidates").asInt() >= profile.path("directCandidates").asInt());
+        assertTrue(profile.path("referenceCache").has("airports"));
+
+        long lookups = 0;
+        for (JsonNode airline : profile.path("fares")) {
+            lookups += airline.path("lookups").asLong();
+            assertTrue(airline.path("faresEvaluated").asLong() >= 0);
+        }
+        assertEquals(counter("flight.search.candidates") - candidates, lookups, 0.0);
+    }
+
+    /**
+     * Test: Without explain the response carries no profile
+     */
+    @Test
+    void testPlanningSearch_NoProfileByDefault() throws Exception {
+        mockMvc.perform(get("/api/flights/planning")
+                        .param("sourceAirport", "BOS")
+                        .param("destinationAirport", "LAX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile").doesNotExist());
+    }
+
+    /**
+     * Test: A search over the slow-search threshold is recorded and listed at the admin endpoint
+     */
+    @Test
+    void testPlanningSearch_SlowSearchRecorded() throws Exception {
+        slowSearchRecorder.clear();
+        ReflectionTestUtils.setField(slowSearchRecorder, "thresholdMs", 0L);
+        try {
+            mockMvc.perform(get("/api/flights/planning")
+                            .param("sourceAirport", "bos")
+                            .param("destinationAirport", "lax"))
+                    .andExpect(status().isOk());
+        } finally {
+            ReflectionTestUtils.setField(slowSearchRecorder, "thresholdMs", 1000L);
+        }
+
+        String token = authService.login(new AuthRequest("admin", "password123")).getToken();
+        mockMvc.perform(get("/api/admin/slow-searches").header("X-Session-ID", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sourceAirport").value("BOS"))
+                .andExpect(jsonPath("$[0].destinationAirport").value("LAX"))
+                .andExpect(jsonPath("$[0].phaseMillis.load_schedule").exists())
+                .andExpect(jsonPath("$[0].flightsLoaded").isNumber())
+                .andExpect(jsonPath("$[0].phase").value("COMPLETE"));
+
+        mockMvc.perform(get("/api/admin/slow-searches"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -538,6 +539,26 @@ class SecurityIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Test: Metrics endpoints require an admin session
+     * Verifies that the Prometheus scrape and metric lookups are not served anonymously
+     */
+    @Test
+    void testMetricsEndpoints_RequireAdminSession() throws Exception {
+        // Logging in during setUp leaves the last admin on this thread; the anonymous checks must not inherit it
+        SecurityContextHolder.clearContext();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/metrics")
+                .header("X-Session-ID", superAdminSessionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.names").isArray());
+    }
+
     /**
      * Test: Database data integrity for security testing
      * Verifies that the loaded test data supports security testing scenarios
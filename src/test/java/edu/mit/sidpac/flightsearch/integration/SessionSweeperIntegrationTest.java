@@ -0,0 +1,96 @@
+package edu.mit.sidpac.flightsearch.integration;
+
+import edu.mit.sidpac.flightsearch.config.TestJpaAuditingConfig;
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.entity.UserRole;
+import edu.mit.sidpac.flightsearch.entity.UserSession;
+import edu.mit.sidpac.flightsearch.repository.UserRepository;
+import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
+import edu.mit.sidpac.flightsearch.security.SessionSweeper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expired session cleanup and the unique session token index.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestJpaAuditingConfig.class)
+@Transactional
+class SessionSweeperIntegrationTest {
+
+    @Autowired
+    private SessionSweeper sessionSweeper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("sweeper_admin", "sweeper_admin@flightsearch.com", "hash",
+                "Sweeper", "Admin", UserRole.ADMIN));
+    }
+
+    private void session(String token, LocalDateTime expiresAt) {
+        userSessionRepository.save(new UserSession(user, token, "no-refresh-token", expiresAt, expiresAt));
+    }
+
+    /**
+     * Test: Expired sessions are deleted across several batches, live ones are kept
+     */
+    @Test
+    void testSweep_DeletesOnlyExpiredSessions() {
+        for (int i = 0; i < 5; i++) {
+            session("expired-" + i, LocalDateTime.now().minusMinutes(i + 1));
+        }
+        session("live", LocalDateTime.now().plusHours(1));
+        ReflectionTestUtils.setField(sessionSweeper, "batchSize", 2);
+        double sweptBefore = meterRegistry.counter("flight.search.sessions.swept").count();
+
+        try {
+            assertEquals(5, sessionSweeper.sweep());
+        } finally {
+            ReflectionTestUtils.setField(sessionSweeper, "batchSize", 500);
+        }
+
+        assertTrue(userSessionRepository.findByTokenHash("live").isPresent());
+        assertTrue(userSessionRepository.findByTokenHash("expired-0").isEmpty());
+        assertEquals(5, meterRegistry.counter("flight.search.sessions.swept").count() - sweptBefore);
+        assertEquals(userSessionRepository.count(),
+                meterRegistry.get("flight.search.sessions.stored").gauge().value());
+        assertEquals(0, sessionSweeper.sweep());
+    }
+
+    /**
+     * Test: Two sessions cannot share a token
+     */
+    @Test
+    void testTokenHash_IsUnique() {
+        session("same-token", LocalDateTime.now().plusHours(1));
+
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            session("same-token", LocalDateTime.now().plusHours(1));
+            userSessionRepository.flush();
+        });
+    }
+}
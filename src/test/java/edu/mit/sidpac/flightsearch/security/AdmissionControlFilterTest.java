@@ -0,0 +1,158 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for AdmissionControlFilter
+ * Verifies per-client rate limiting, the admin quota and that other endpoints are untouched
+ * Runs the filter directly against mock servlet objects
+ */
+class AdmissionControlFilterTest {
+
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdmissionControlFilter();
+        ReflectionTestUtils.setField(filter, "capacity", 2d);
+        ReflectionTestUtils.setField(filter, "refillPerSecond", 0.001d);
+        ReflectionTestUtils.setField(filter, "adminCapacity", 5d);
+        ReflectionTestUtils.setField(filter, "adminRefillPerSecond", 0.001d);
+        filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Test: Anonymous client exceeding its bucket gets 429 with Retry-After
+     */
+    @Test
+    void testSearch_RateLimitedPerClient() throws Exception {
+        assertEquals(200, search("10.0.0.1").getStatus());
+        assertEquals(200, search("10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = search("10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"), "Rejected request should carry Retry-After");
+        assertTrue(Long.parseLong(rejected.getHeader("Retry-After")) >= 1);
+
+        // A different client has its own bucket
+        assertEquals(200, search("10.0.0.2").getStatus());
+    }
+
+    /**
+     * Test: Authenticated admins use a separate, larger quota
+     */
+    @Test
+    void testSearch_AdminUsesSeparateQuota() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, search("10.0.0.1").getStatus(), "Admin request " + i + " should be admitted");
+        }
+        assertEquals(429, search("10.0.0.1").getStatus());
+    }
+
+    /**
+     * Test: Authenticated non-admin users are keyed by user, whatever address they come from
+     */
+    @Test
+    void testSearch_AuthenticatedUserKeyedByUser() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "traveller", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        assertEquals(200, search("10.0.0.1").getStatus());
+        assertEquals(200, search("10.0.0.2").getStatus());
+        assertEquals(429, search("10.0.0.3").getStatus(), "A new address should not give the user a new bucket");
+
+        SecurityContextHolder.clearContext();
+        assertEquals(200, search("10.0.0.1").getStatus(), "Anonymous traffic from the same address has its own bucket");
+    }
+
+    /**
+     * Test: Addresses beyond max-tracked-clients share one overflow bucket instead of growing the map
+     */
+    @Test
+    void testSearch_TrackedClientsCapped() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxTrackedClients", 2);
+
+        // Partly drained buckets are not idle, so the sweep cannot make room
+        assertEquals(200, search("10.0.0.1").getStatus());
+        assertEquals(200, search("10.0.0.2").getStatus());
+        for (int i = 3; i < 100; i++) {
+            search("10.0.1." + i);
+        }
+
+        Map<?, ?> buckets = (Map<?, ?>) ReflectionTestUtils.getField(filter, "buckets");
+        assertEquals(2, buckets.size(), "Untracked addresses should not be added to the map");
+        assertEquals(429, search("10.0.2.1").getStatus(), "The overflow bucket should be drained by then");
+        assertEquals(200, search("10.0.0.1").getStatus(), "Tracked clients keep their own buckets");
+    }
+
+    /**
+     * Test: Admin bypass skips admission entirely
+     */
+    @Test
+    void testSearch_AdminBypass() throws Exception {
+        ReflectionTestUtils.setField(filter, "adminBypass", true);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, search("10.0.0.1").getStatus());
+        }
+    }
+
+    /**
+     * Test: Global concurrency limit rejects searches once all permits are taken
+     */
+    @Test
+    void testSearch_GlobalConcurrencyLimit() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxConcurrentSearches", 0);
+        filter.init();
+
+        MockHttpServletResponse rejected = search("10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+    }
+
+    /**
+     * Test: Non-search endpoints are not rate limited
+     */
+    @Test
+    void testNonSearchEndpoint_NotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights/flight-aa123-001");
+            request.setRemoteAddr("10.0.0.1");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private MockHttpServletResponse search(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights/planning");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for PasswordHashingExecutor
+ * Verifies that hashing runs on the pool and that saturation is rejected quickly
+ */
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "waitTimeoutMs", 5000L);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Test: Encoder round trip goes through the pool thread
+     */
+    @Test
+    void testBoundedEncoder_HashesOnPool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+
+        String hash = encoder.encode("admin123");
+
+        assertTrue(encoder.matches("admin123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertTrue(executor.run(() -> Thread.currentThread().getName()).startsWith("password-hashing-"));
+    }
+
+    /**
+     * Test: With the thread busy and the queue full, further work is rejected without waiting
+     */
+    @Test
+    void testRun_RejectsWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> executor.run(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> executor.run(() -> true));
+            while (meterRegistry.get("flight.search.password_hashing.queued").gauge().value() < 1) {
+                Thread.sleep(1);
+            }
+
+            long start = System.nanoTime();
+            assertThrows(PasswordHashingBusyException.class, () -> executor.run(() -> true));
+
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertEquals(1, meterRegistry.counter("flight.search.password_hashing.rejected").count());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.entity.UserRole;
+import edu.mit.sidpac.flightsearch.entity.UserSession;
+import edu.mit.sidpac.flightsearch.repository.UserSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test suite for SessionCache
+ * Verifies that repeat lookups skip the repository and that logout, re-login and expiry drop entries
+ * Uses a mocked UserSessionRepository
+ */
+class SessionCacheTest {
+
+    private SessionCache sessionCache;
+    private UserSessionRepository userSessionRepository;
+
+    @BeforeEach
+    void setUp() {
+        userSessionRepository = mock(UserSessionRepository.class);
+        sessionCache = new SessionCache();
+        ReflectionTestUtils.setField(sessionCache, "userSessionRepository", userSessionRepository);
+        ReflectionTestUtils.setField(sessionCache, "signedTokenService", new SignedTokenService());
+        sessionCache.init();
+    }
+
+    private UserSession session(String userId, String token, LocalDateTime expiresAt) {
+        User user = new User("aa_admin", "aa_admin@flightsearch.com", "hash", "American", "Admin", UserRole.ADMIN);
+        user.setId(userId);
+        user.setAssignedAirlineCode("AA");
+        UserSession session = new UserSession(user, token, "no-refresh-token", expiresAt, expiresAt);
+        when(userSessionRepository.findByTokenHash(token)).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    /**
+     * Test: Second lookup for the same token is served from the cache
+     */
+    @Test
+    void testResolve_CachesPrincipal() {
+        session("user-1", "token-1", LocalDateTime.now().plusHours(1));
+
+        SessionPrincipal first = sessionCache.resolve("token-1");
+        SessionPrincipal second = sessionCache.resolve("token-1");
+
+        assertNotNull(first);
+        assertEquals("aa_admin", second.getName());
+        assertEquals("AA", second.toUser().getAssignedAirlineCode());
+        verify(userSessionRepository, times(1)).findByTokenHash("token-1");
+    }
+
+    /**
+     * Test: Logout invalidation forces the next lookup back to the repository
+     */
+    @Test
+    void testInvalidate_DropsToken() {
+        session("user-1", "token-1", LocalDateTime.now().plusHours(1));
+        sessionCache.resolve("token-1");
+
+        sessionCache.invalidate("token-1");
+        when(userSessionRepository.findByTokenHash("token-1")).thenReturn(Optional.empty());
+
+        assertNull(sessionCache.resolve("token-1"));
+    }
+
+    /**
+     * Test: Re-login drops every cached session of that user and only that user
+     */
+    @Test
+    void testInvalidateUser_DropsAllSessionsOfUser() {
+        session("user-1", "token-1", LocalDateTime.now().plusHours(1));
+        session("user-1", "token-2", LocalDateTime.now().plusHours(1));
+        session("user-2", "token-3", LocalDateTime.now().plusHours(1));
+        sessionCache.resolve("token-1");
+        sessionCache.resolve("token-2");
+        sessionCache.resolve("token-3");
+
+        sessionCache.invalidateUser("user-1");
+
+        assertEquals(1, sessionCache.size());
+        sessionCache.resolve("token-3");
+        verify(userSessionRepository, times(1)).findByTokenHash("token-3");
+    }
+
+    /**
+     * Test: Expired sessions are rejected and removed from the database
+     */
+    @Test
+    void testResolve_ExpiredSessionIsDeleted() {
+        UserSession expired = session("user-1", "token-1", LocalDateTime.now().minusMinutes(1));
+
+        assertNull(sessionCache.resolve("token-1"));
+        verify(userSessionRepository).delete(expired);
+        assertEquals(0, sessionCache.size());
+    }
+
+    /**
+     * Test: Unknown tokens are not cached
+     */
+    @Test
+    void testResolve_UnknownToken() {
+        when(userSessionRepository.findByTokenHash("nope")).thenReturn(Optional.empty());
+
+        assertNull(sessionCache.resolve("nope"));
+        assertNull(sessionCache.resolve("nope"));
+        verify(userSessionRepository, times(2)).findByTokenHash("nope");
+    }
+}
@@ -0,0 +1,154 @@
+package edu.mit.sidpac.flightsearch.security;
+
+import edu.mit.sidpac.flightsearch.entity.User;
+import edu.mit.sidpac.flightsearch.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SignedTokenService
+ * Verifies round trips, rejection of tampered or expired tokens, and logout / re-login revocation
+ */
+class SignedTokenServiceTest {
+
+    private SignedTokenService tokens;
+
+    @BeforeEach
+    void setUp() {
+        tokens = newService("test-secret");
+    }
+
+    private SignedTokenService newService(String secret) {
+        SignedTokenService service = new SignedTokenService();
+        ReflectionTestUtils.setField(service, "tokenMode", "signed");
+        ReflectionTestUtils.setField(service, "tokenSecret", secret);
+        service.init();
+        return service;
+    }
+
+    private User user(String id, String airlineCode) {
+        User user = new User("aa_admin", "aa_admin@flightsearch.com", "hash", "American", "Admin", UserRole.ADMIN);
+        user.setId(id);
+        user.setAssignedAirlineCode(airlineCode);
+        return user;
+    }
+
+    /**
+     * Test: Issued token verifies back to the same user, role and airline scope
+     */
+    @Test
+    void testVerify_RoundTrip() {
+        String token = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+
+        SessionPrincipal principal = tokens.verify(token);
+
+        assertNotNull(principal);
+        assertEquals("user-1", principal.userId());
+        assertEquals("aa_admin", principal.getName());
+        assertEquals(UserRole.ADMIN, principal.role());
+        assertEquals("AA", principal.assignedAirlineCode());
+        assertFalse(principal.isExpired());
+    }
+
+    /**
+     * Test: Super admin tokens keep a null airline scope
+     */
+    @Test
+    void testVerify_SuperAdminHasNoAirline() {
+        String token = tokens.issue(user("user-2", null), LocalDateTime.now().plusHours(1));
+
+        assertNull(tokens.verify(token).assignedAirlineCode());
+    }
+
+    /**
+     * Test: Changing the payload, using another key, or passing garbage is rejected
+     */
+    @Test
+    void testVerify_RejectsTamperedTokens() {
+        String token = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+        int dot = token.indexOf('.');
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)));
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("|AA|", "||").getBytes()) + token.substring(dot);
+
+        assertNull(tokens.verify(forged));
+        assertNull(newService("other-secret").verify(token));
+        assertNull(tokens.verify("not-a-token"));
+        assertNull(tokens.verify("a.b"));
+        assertNull(tokens.verify(null));
+    }
+
+    /**
+     * Test: Expired tokens are rejected
+     */
+    @Test
+    void testVerify_RejectsExpired() {
+        String token = tokens.issue(user("user-1", "AA"), LocalDateTime.now().minusMinutes(1));
+
+        assertNull(tokens.verify(token));
+    }
+
+    /**
+     * Test: Logout revokes only that token
+     */
+    @Test
+    void testRevoke_RejectsOnlyThatToken() {
+        String first = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+        String second = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+
+        tokens.revoke(first);
+
+        assertNull(tokens.verify(first));
+        assertNotNull(tokens.verify(second));
+        assertEquals(1, tokens.revokedCount());
+    }
+
+    /**
+     * Test: Re-login revokes earlier tokens but not the one issued afterwards
+     */
+    @Test
+    void testRevokeUser_RejectsEarlierTokens() throws InterruptedException {
+        String old = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+        String otherUser = tokens.issue(user("user-2", null), LocalDateTime.now().plusHours(1));
+        Thread.sleep(2);
+
+        tokens.revokeUser("user-1");
+        String fresh = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusHours(1));
+
+        assertNull(tokens.verify(old));
+        assertNotNull(tokens.verify(fresh));
+        assertNotNull(tokens.verify(otherUser));
+    }
+
+    /**
+     * Test: Re-login cutoffs are swept only once every token they revoke has expired
+     */
+    @Test
+    void testRevokeUser_CutoffSweptOnTokenExpiry() throws InterruptedException {
+        SignedTokenService expiredOnly = newService("test-secret");
+        expiredOnly.issue(user("user-1", "AA"), LocalDateTime.now().minusSeconds(1));
+        // Longer than a day, so the cutoff must not be pruned on a fixed session length
+        String longLived = tokens.issue(user("user-1", "AA"), LocalDateTime.now().plusDays(3));
+        Thread.sleep(2);
+        expiredOnly.revokeUser("user-1");
+        tokens.revokeUser("user-1");
+
+        for (int i = 0; i < 1100; i++) {
+            String logout = tokens.issue(user("user-" + (i + 2), null), LocalDateTime.now().minusSeconds(1));
+            tokens.revoke(logout);
+            expiredOnly.revoke(logout);
+        }
+
+        assertTrue(tokens.revokedCount() < 1100, "Expired logouts should have been swept");
+        assertNull(tokens.verify(longLived), "The cutoff should outlive the sweep while its token is valid");
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(expiredOnly, "revokedBefore")).isEmpty(),
+                "A cutoff whose tokens have all expired should be swept");
+    }
+}
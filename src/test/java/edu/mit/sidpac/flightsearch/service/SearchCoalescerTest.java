@@ -0,0 +1,183 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import edu.mit.sidpac.flightsearch.dto.SearchRequest;
+import edu.mit.sidpac.flightsearch.dto.SearchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test suite for SearchCoalescer
+ * Verifies that concurrent identical searches share a single computation
+ * Uses a mocked FlightSearchService to control when the in-flight search completes
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchCoalescerTest {
+
+    @Mock
+    private FlightSearchService flightSearchService;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private SearchCoalescer searchCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        searchCoalescer.registerMetrics();
+    }
+
+    /**
+     * Test: Concurrent identical searches are coalesced
+     * Verifies that waiters receive the leader's result and the engine runs once
+     */
+    @Test
+    void testSearchFlights_ConcurrentIdenticalRequestsShareOneSearch() throws Exception {
+        CountDownLatch searchStarted = new CountDownLatch(1);
+        CountDownLatch releaseSearch = new CountDownLatch(1);
+        SearchResponse expected = new SearchResponse(new ArrayList<>(), new SearchRequest("BOS", "LAX", null));
+        when(flightSearchService.searchFlights(any())).thenAnswer(invocation -> {
+            searchStarted.countDown();
+            releaseSearch.await(5, TimeUnit.SECONDS);
+            return expected;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SearchResponse> leader = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+            assertTrue(searchStarted.await(5, TimeUnit.SECONDS), "Leader search should start");
+
+            // Lower-case codes normalize to the same key as the in-flight search
+            Future<SearchResponse> follower = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest("bos", "lax", null)));
+            while (meterRegistry.counter("flight.search.coalescing", "outcome", "coalesced").count() < 1) {
+                Thread.sleep(5);
+            }
+            releaseSearch.countDown();
+
+            assertSame(expected, leader.get(5, TimeUnit.SECONDS));
+            assertSame(expected, follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(flightSearchService, times(1)).searchFlights(any());
+        assertEquals(1.0, meterRegistry.counter("flight.search.coalescing", "outcome", "executed").count());
+        assertEquals(1.0, meterRegistry.counter("flight.search.coalescing", "outcome", "coalesced").count());
+    }
+
+    /**
+     * Test: Sequential searches are not coalesced
+     * Verifies that a completed search is not reused by later requests
+     */
+    @Test
+    void testSearchFlights_SequentialRequestsExecuteSeparately() {
+        when(flightSearchService.searchFlights(any()))
+                .thenAnswer(invocation -> new SearchResponse(new ArrayList<>(), invocation.getArgument(0)));
+
+        searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null));
+        searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null));
+
+        verify(flightSearchService, times(2)).searchFlights(any());
+        assertEquals(2.0, meterRegistry.counter("flight.search.coalescing", "outcome", "executed").count());
+    }
+
+    /**
+     * Test: Failures propagate to the caller
+     * Verifies that the in-flight entry is cleared so the next request retries
+     */
+    @Test
+    void testSearchFlights_FailureIsPropagatedAndCleared() {
+        when(flightSearchService.searchFlights(any()))
+                .thenThrow(new RuntimeException("boom"))
+                .thenAnswer(invocation -> new SearchResponse(new ArrayList<>(), invocation.getArgument(0)));
+
+        assertThrows(RuntimeException.class, () -> searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+        assertNotNull(searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+    }
+
+    /**
+     * Test: An Error in the leader's search reaches its waiters
+     * Verifies that a follower blocked on the in-flight search is released with the same Error
+     */
+    @Test
+    void testSearchFlights_ErrorReleasesWaiters() throws Exception {
+        CountDownLatch searchStarted = new CountDownLatch(1);
+        CountDownLatch releaseSearch = new CountDownLatch(1);
+        when(flightSearchService.searchFlights(any()))
+                .thenAnswer(invocation -> {
+                    searchStarted.countDown();
+                    releaseSearch.await(5, TimeUnit.SECONDS);
+                    throw new StackOverflowError();
+                })
+                .thenAnswer(invocation -> new SearchResponse(new ArrayList<>(), invocation.getArgument(0)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SearchResponse> leader = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+            assertTrue(searchStarted.await(5, TimeUnit.SECONDS), "Leader search should start");
+
+            Future<SearchResponse> follower = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+            while (meterRegistry.counter("flight.search.coalescing", "outcome", "coalesced").count() < 1) {
+                Thread.sleep(5);
+            }
+            releaseSearch.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, leaderFailure.getCause());
+            ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, followerFailure.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertNotNull(searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+    }
+
+    /**
+     * Test: Codes that the search engine treats differently are not coalesced
+     * Verifies that a padded code runs its own search instead of sharing the unpadded one
+     */
+    @Test
+    void testSearchFlights_PaddedCodesExecuteSeparately() throws Exception {
+        CountDownLatch searchesStarted = new CountDownLatch(2);
+        CountDownLatch releaseSearch = new CountDownLatch(1);
+        when(flightSearchService.searchFlights(any())).thenAnswer(invocation -> {
+            searchesStarted.countDown();
+            releaseSearch.await(5, TimeUnit.SECONDS);
+            return new SearchResponse(new ArrayList<>(), invocation.getArgument(0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SearchResponse> plain = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest("BOS", "LAX", null)));
+            Future<SearchResponse> padded = executor.submit(() -> searchCoalescer.searchFlights(new SearchRequest(" BOS", "LAX", null)));
+            assertTrue(searchesStarted.await(5, TimeUnit.SECONDS), "Both searches should run");
+            releaseSearch.countDown();
+
+            assertEquals("BOS", plain.get(5, TimeUnit.SECONDS).getSearchCriteria().getSourceAirport());
+            assertEquals(" BOS", padded.get(5, TimeUnit.SECONDS).getSearchCriteria().getSourceAirport());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0.0, meterRegistry.counter("flight.search.coalescing", "outcome", "coalesced").count());
+    }
+}
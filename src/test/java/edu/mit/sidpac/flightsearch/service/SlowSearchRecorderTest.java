@@ -0,0 +1,143 @@
+package edu.mit.sidpac.flightsearch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.mit.sidpac.flightsearch.dto.SearchPhase;
+import edu.mit.sidpac.flightsearch.dto.SlowSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for SlowSearchRecorder
+ * Verifies the threshold, ring buffer eviction and the rotated NDJSON files
+ */
+class SlowSearchRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private SlowSearchRecorder recorder;
+    private Path logDirectory;
+
+    @BeforeEach
+    void setUp() {
+        logDirectory = directory.resolve("slow");
+        recorder = new SlowSearchRecorder();
+        ReflectionTestUtils.setField(recorder, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(recorder, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(recorder, "thresholdMs", 500L);
+        ReflectionTestUtils.setField(recorder, "bufferSize", 3);
+        ReflectionTestUtils.setField(recorder, "directory", logDirectory.toString());
+        recorder.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recorder.shutdown();
+    }
+
+    private static SlowSearch search(String destination) {
+        return new SlowSearch(LocalDateTime.of(2026, 1, 1, 12, 0), "BOS", destination, null, 2000, 750.0,
+                Map.of("load_schedule", 700.0), 1000, 2, 10, 40, 12, 96, 12, false, SearchPhase.COMPLETE);
+    }
+
+    /**
+     * Test: Only searches at or over the threshold are slow, and none when disabled
+     */
+    @Test
+    void testIsSlow_Threshold() {
+        assertFalse(recorder.isSlow(TimeUnit.MILLISECONDS.toNanos(499)));
+        assertTrue(recorder.isSlow(TimeUnit.MILLISECONDS.toNanos(500)));
+
+        ReflectionTestUtils.setField(recorder, "enabled", false);
+        assertFalse(recorder.isSlow(TimeUnit.SECONDS.toNanos(60)));
+    }
+
+    /**
+     * Test: The buffer keeps the newest searches, newest first, while the files keep all of them
+     */
+    @Test
+    void testRecord_BufferEvictsOldestAndFileKeepsAll() throws Exception {
+        for (String destination : List.of("LAX", "SFO", "ORD", "JFK")) {
+            recorder.record(search(destination));
+        }
+
+        assertEquals(List.of("JFK", "ORD", "SFO"),
+                recorder.getRecent().stream().map(SlowSearch::destinationAirport).toList());
+
+        recorder.drain();
+        List<String> lines = Files.readAllLines(singleFile());
+        assertEquals(4, lines.size());
+        SlowSearch first = objectMapper.readValue(lines.get(0), SlowSearch.class);
+        assertEquals(search("LAX"), first);
+
+        recorder.clear();
+        assertTrue(recorder.getRecent().isEmpty());
+        assertEquals(4, Files.readAllLines(singleFile()).size(), "Clearing the buffer should leave the files alone");
+    }
+
+    /**
+     * Test: An empty directory setting keeps slow searches in memory only
+     */
+    @Test
+    void testRecord_MemoryOnly() throws Exception {
+        ReflectionTestUtils.setField(recorder, "directory", "");
+        recorder.record(search("LAX"));
+        recorder.drain();
+
+        assertEquals(1, recorder.getRecent().size());
+        assertFalse(Files.exists(logDirectory));
+    }
+
+    /**
+     * Test: Full files rotate and only the newest max-files are kept
+     */
+    @Test
+    void testRecord_FilesRotateAndArePruned() throws Exception {
+        recorder.shutdown();
+        // A zero size limit starts a new file for every line
+        ReflectionTestUtils.setField(recorder, "maxFileMb", 0L);
+        ReflectionTestUtils.setField(recorder, "maxFiles", 2);
+        recorder.init();
+
+        for (String destination : List.of("LAX", "SFO", "ORD")) {
+            recorder.record(search(destination));
+        }
+        recorder.drain();
+
+        List<Path> files = logFiles();
+        assertEquals(2, files.size());
+        assertEquals("ORD", objectMapper.readValue(Files.readString(files.get(1)), SlowSearch.class).destinationAirport());
+    }
+
+    private Path singleFile() throws IOException {
+        List<Path> files = logFiles();
+        assertEquals(1, files.size());
+        return files.get(0);
+    }
+
+    private List<Path> logFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(logDirectory)) {
+            return listing.sorted().toList();
+        }
+    }
+}
@@ -2,12 +2,16 @@ package edu.mit.sidpac.flightsearch.util;
 
 import edu.mit.sidpac.flightsearch.entity.*;
 import edu.mit.sidpac.flightsearch.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Test database setup utility class
@@ -38,6 +42,12 @@ public class TestDatabaseSetup {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     /**
      * Loads the complete database schema and sample data
      * This provides a realistic test environment with:
@@ -57,6 +67,23 @@ public class TestDatabaseSetup {
         createTestFareRestrictions();
     }
 
+    /**
+     * Removes every row and evicts the second-level cache
+     * Needed after tests that run outside a rolled-back test transaction, since their data is committed
+     */
+    public void clearDatabaseData() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            tables.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table));
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
     private void createTestUsers() {
         // Create super admin
         User superAdmin = new User();
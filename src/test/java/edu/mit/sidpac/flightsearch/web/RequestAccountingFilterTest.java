@@ -0,0 +1,117 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for RequestAccountingFilter
+ * Verifies the Server-Timing header, the per-endpoint meters and that statements reach the current request
+ * Runs the filter directly against mock servlet objects and a simple meter registry
+ */
+class RequestAccountingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RequestAccountingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestAccountingFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights/42");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/flights/{id}");
+        return request;
+    }
+
+    /**
+     * Servlet that runs two statements against the current request's cost and writes a body.
+     */
+    private static HttpServlet servlet() {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                RequestCost cost = RequestCost.current();
+                assertNotNull(cost, "The filter should bind a cost to the request thread");
+                cost.recordStatement(2_000_000);
+                cost.recordStatement(1_000_000);
+                response.setContentType("application/json");
+                response.getWriter().write("{}");
+                response.flushBuffer();
+            }
+        };
+    }
+
+    /**
+     * Test: A committed response still carries Server-Timing, and the meters are tagged by route and caller
+     */
+    @Test
+    void testDoFilter_ServerTimingAndMeters() throws Exception {
+        ReflectionTestUtils.setField(filter, "serverTiming", true);
+        MockHttpServletRequest request = request();
+        request.addHeader("X-Session-ID", "session-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(servlet()));
+
+        assertEquals("{}", response.getContentAsString());
+        String timing = response.getHeader(RequestAccountingFilter.SERVER_TIMING);
+        assertNotNull(timing);
+        assertTrue(timing.startsWith("app;dur="), timing);
+        assertTrue(timing.contains("db;dur=3.0;desc=\"2 statements\""), timing);
+        assertNull(RequestCost.current(), "The cost should not outlive the request");
+
+        DistributionSummary statements = meterRegistry.get("flight.search.request.statements")
+                .tags("method", "GET", "uri", "/api/flights/{id}", "caller", "session")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+        Timer jdbc = meterRegistry.get("flight.search.request.jdbc").tags("caller", "session").timer();
+        assertEquals(3.0, jdbc.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    /**
+     * Test: The header is off by default, and the meters are still recorded for anonymous callers
+     */
+    @Test
+    void testDoFilter_HeaderDisabledByDefault() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, new MockFilterChain(servlet()));
+
+        assertNull(response.getHeader(RequestAccountingFilter.SERVER_TIMING));
+        assertEquals(1, meterRegistry.get("flight.search.request.statements")
+                .tags("caller", "anonymous").summary().count());
+    }
+
+    /**
+     * Test: Unmatched requests fall back to a fixed uri tag instead of the raw path
+     */
+    @Test
+    void testUri_Fallbacks() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/missing/123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertEquals("UNKNOWN", RequestAccountingFilter.uri(request, response));
+        response.setStatus(404);
+        assertEquals("NOT_FOUND", RequestAccountingFilter.uri(request, response));
+        response.setStatus(302);
+        assertEquals("REDIRECTION", RequestAccountingFilter.uri(request, response));
+    }
+}
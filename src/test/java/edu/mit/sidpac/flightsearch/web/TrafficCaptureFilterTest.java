@@ -0,0 +1,201 @@
+package edu.mit.sidpac.flightsearch.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TrafficCaptureFilter and TrafficCaptureLog
+ * Verifies what is captured, that responses pass through unchanged, and file rotation
+ * Runs the filter directly against mock servlet objects and a temporary capture directory
+ */
+class TrafficCaptureFilterTest {
+
+    private static final String BODY = "{\"trips\":[],\"totalResults\":0}";
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TrafficCaptureLog log;
+    private TrafficCaptureFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        log = new TrafficCaptureLog();
+        ReflectionTestUtils.setField(log, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(log, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(log, "directory", directory.toString());
+        log.init();
+
+        filter = new TrafficCaptureFilter();
+        ReflectionTestUtils.setField(filter, "trafficCaptureLog", log);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "sampleRate", 1.0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        log.shutdown();
+    }
+
+    /**
+     * Test: A sampled search is recorded with its status, query, Accept header and body checksum
+     */
+    @Test
+    void testCapture_RecordsSampledSearch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/flights/search");
+        request.setQueryString("source=BOS&destination=LAX");
+        request.addHeader("Accept", "application/json");
+        request.addHeader("X-Session-ID", "secret-session");
+
+        MockHttpServletResponse response = execute(request);
+        assertEquals(BODY, response.getContentAsString(), "Client should still receive the full body");
+
+        List<CapturedRequest> captured = readCaptured();
+        assertEquals(1, captured.size());
+        CapturedRequest record = captured.get(0);
+        assertEquals("GET", record.method());
+        assertEquals("/api/flights/search", record.path());
+        assertEquals("source=BOS&destination=LAX", record.query());
+        assertEquals("application/json", record.accept());
+        assertEquals(200, record.status());
+        assertEquals(BODY.length(), record.responseBytes());
+        assertTrue(record.durationMicros() >= 0);
+
+        CRC32 crc = new CRC32();
+        crc.update(BODY.getBytes(StandardCharsets.UTF_8));
+        assertEquals(Long.toHexString(crc.getValue()), record.checksum());
+
+        assertFalse(Files.readString(singleFile()).contains("secret-session"), "Session ids must not be captured");
+        assertEquals(1.0, meterRegistry.get("flight.search.capture.records").tag("outcome", "written").counter().count());
+    }
+
+    /**
+     * Test: The body reaches the client as it is written, and the checksum covers stream writes
+     */
+    @Test
+    void testCapture_StreamsBodyWithoutBuffering() throws Exception {
+        byte[] chunk = BODY.getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/flights"), response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.getOutputStream().write(chunk);
+                assertEquals(chunk.length, response.getContentAsByteArray().length,
+                        "Written bytes should not be held back by the capture");
+                resp.getOutputStream().write(chunk, 0, 1);
+            }
+        }));
+
+        CapturedRequest record = readCaptured().get(0);
+        assertEquals(chunk.length + 1, record.responseBytes());
+        CRC32 crc = new CRC32();
+        crc.update(response.getContentAsByteArray());
+        assertEquals(Long.toHexString(crc.getValue()), record.checksum());
+    }
+
+    /**
+     * Test: Writes, the export stream, other APIs and a disabled filter are never captured
+     */
+    @Test
+    void testCapture_SkipsUncapturedRequests() throws Exception {
+        execute(new MockHttpServletRequest("POST", "/api/flights"));
+        execute(new MockHttpServletRequest("GET", "/api/flights/export"));
+        execute(new MockHttpServletRequest("GET", "/api/admin/cache"));
+
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        execute(new MockHttpServletRequest("GET", "/api/flights/planning"));
+
+        assertTrue(readCaptured().isEmpty());
+    }
+
+    /**
+     * Test: A sample rate of zero captures nothing
+     */
+    @Test
+    void testCapture_SampleRateZero() throws Exception {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BODY, execute(new MockHttpServletRequest("GET", "/api/flights/planning")).getContentAsString());
+        }
+        assertTrue(readCaptured().isEmpty());
+    }
+
+    /**
+     * Test: Full files rotate and only the newest max-files are kept
+     */
+    @Test
+    void testLog_RotatesAndPrunesOldestFiles() throws Exception {
+        log.shutdown();
+        // A zero size limit starts a new file for every record
+        ReflectionTestUtils.setField(log, "maxFileMb", 0L);
+        ReflectionTestUtils.setField(log, "maxFiles", 3);
+        log.init();
+        for (int i = 0; i < 5; i++) {
+            log.append(new CapturedRequest(i, "GET", "/api/flights/" + i, null, null, 200, 1, 2, "0"));
+        }
+
+        List<CapturedRequest> captured = readCaptured();
+        assertEquals(3, captured.size());
+        assertEquals(List.of("/api/flights/2", "/api/flights/3", "/api/flights/4"),
+                captured.stream().map(CapturedRequest::path).toList());
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType("application/json");
+                resp.getWriter().write(BODY);
+            }
+        }));
+        return response;
+    }
+
+    private List<CapturedRequest> readCaptured() throws Exception {
+        log.drain();
+        List<CapturedRequest> captured = new ArrayList<>();
+        for (Path file : captureFiles()) {
+            for (String line : Files.readAllLines(file)) {
+                captured.add(objectMapper.readValue(line, CapturedRequest.class));
+            }
+        }
+        return captured;
+    }
+
+    private Path singleFile() throws IOException {
+        List<Path> files = captureFiles();
+        assertEquals(1, files.size());
+        return files.get(0);
+    }
+
+    private List<Path> captureFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(TrafficCaptureLog::isCaptureFile).sorted().toList();
+        }
+    }
+}